@@ -1,15 +1,25 @@
 package com.festeringportal;
 
 import com.festeringportal.config.FesteringConfig;
+import com.festeringportal.corruption.CandidateIndex;
 import com.festeringportal.corruption.CorruptionManager;
+import com.festeringportal.corruption.MobConversionRules;
+import com.festeringportal.corruption.MobCorruption;
 import com.festeringportal.corruption.SpreadingAlgorithm;
+import com.festeringportal.corruption.TransformationRules;
 import com.festeringportal.data.FesteringPortalState;
+import com.festeringportal.data.PortalStorage;
+import com.festeringportal.network.CorruptionEffectsPayload;
 import com.festeringportal.util.PortalScanner;
 import net.fabricmc.api.ModInitializer;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerChunkEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerEntityEvents;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.fabricmc.fabric.api.resource.v1.ResourceLoader;
 import net.minecraft.core.BlockPos;
 import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.packs.PackType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -39,10 +49,41 @@ public class FesteringPortal implements ModInitializer {
 
         FesteringConfig.load();
 
+        CorruptionEffectsPayload.register();
+
+        ResourceLoader.get(PackType.SERVER_DATA).registerReloader(
+            TransformationRules.Loader.ID, new TransformationRules.Loader());
+        ResourceLoader.get(PackType.SERVER_DATA).registerReloader(
+            MobConversionRules.Loader.ID, new MobConversionRules.Loader());
+
         ServerLifecycleEvents.SERVER_STARTED.register(server -> {
+            TransformationRules.resolve();
+            MobConversionRules.resolve();
             FesteringPortalState.initialize(server);
         });
 
+        // Tags are bound by now, so tag-sourced rules see the reloaded contents
+        ServerLifecycleEvents.END_DATA_PACK_RELOAD.register((server, resourceManager, success) -> {
+            if (success) {
+                TransformationRules.resolve();
+                MobConversionRules.resolve();
+            }
+        });
+
+        // Portal and chunk index files are written in the background; see saveFiles for when it waits
+        ServerLifecycleEvents.BEFORE_SAVE.register((server, flush, force) ->
+            FesteringPortalState.saveFiles(server, flush));
+
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> {
+            PortalStorage.awaitWrites();
+            CandidateIndex.clear();
+            MobCorruption.clear();
+        });
+
+        ServerChunkEvents.CHUNK_LOAD.register(CandidateIndex::onChunkLoad);
+        ServerChunkEvents.CHUNK_UNLOAD.register(CandidateIndex::onChunkUnload);
+        ServerEntityEvents.ENTITY_LOAD.register(MobCorruption::onEntityLoad);
+
         ServerTickEvents.END_LEVEL_TICK.register(world -> {
             if (world instanceof ServerLevel serverWorld) {
                 CorruptionManager.tick(serverWorld);
@@ -0,0 +1,66 @@
+package com.festeringportal.client;
+
+import com.festeringportal.corruption.ParticleBatch;
+import com.festeringportal.network.CorruptionEffectsPayload;
+import net.fabricmc.api.ClientModInitializer;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
+import net.minecraft.client.multiplayer.ClientLevel;
+import net.minecraft.core.BlockPos;
+import net.minecraft.util.RandomSource;
+
+/**
+ * Optional client companion. Servers send it corruption effects as compact
+ * position lists, which it draws here with the same particles, counts and spread
+ * the server would otherwise have sent one packet at a time. Like those packets,
+ * each effect in a payload draws at most MAX_MERGED_COUNT particles.
+ */
+public class FesteringPortalClient implements ClientModInitializer {
+
+    @Override
+    public void onInitializeClient() {
+        ClientPlayNetworking.registerGlobalReceiver(CorruptionEffectsPayload.TYPE, (payload, context) -> {
+            ClientLevel level = context.client().level;
+            if (level != null) {
+                render(level, payload);
+            }
+        });
+    }
+
+    private static void render(ClientLevel level, CorruptionEffectsPayload payload) {
+        RandomSource random = level.getRandom();
+        ParticleBatch.Effect[] effects = ParticleBatch.Effect.values();
+
+        for (int i = 0; i < effects.length && i < payload.sites().length; i++) {
+            ParticleBatch.Effect effect = effects[i];
+            long[] sites = payload.sites()[i];
+            if (sites.length == 0) continue;
+
+            if ((long) sites.length * effect.count <= ParticleBatch.MAX_MERGED_COUNT) {
+                for (long packed : sites) {
+                    for (int n = 0; n < effect.count; n++) {
+                        addParticle(level, effect, packed, random);
+                    }
+                }
+            } else {
+                // Held to the vanilla packet's cap, each particle at a sampled site
+                for (int n = 0; n < ParticleBatch.MAX_MERGED_COUNT; n++) {
+                    addParticle(level, effect, sites[random.nextInt(sites.length)], random);
+                }
+            }
+        }
+    }
+
+    /**
+     * One particle at a site, in the same distribution the server's particle packet
+     * would have asked for.
+     */
+    private static void addParticle(ClientLevel level, ParticleBatch.Effect effect, long site, RandomSource random) {
+        level.addParticle(effect.type,
+            BlockPos.getX(site) + 0.5 + random.nextGaussian() * effect.spread,
+            BlockPos.getY(site) + effect.yOffset + random.nextGaussian() * effect.spread,
+            BlockPos.getZ(site) + 0.5 + random.nextGaussian() * effect.spread,
+            random.nextGaussian() * effect.speed,
+            random.nextGaussian() * effect.speed,
+            random.nextGaussian() * effect.speed);
+    }
+}
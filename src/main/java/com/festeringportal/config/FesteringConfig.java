@@ -20,6 +20,27 @@ public class FesteringConfig {
     public static float MOB_CORRUPTION_CHANCE = 0.05f;
     public static boolean TRANSFORM_WATER_TO_LAVA = true;
     public static int MAX_PORTALS_PER_TICK = 10;
+    public static boolean BULK_SECTION_FILL = false;
+    public static int BULK_SECTIONS_PER_CYCLE = 1;
+    public static boolean QUIET_CONVERSIONS = true;
+    public static boolean CHUNK_AFFINE_SAMPLING = false;
+    public static int CHUNK_AFFINE_WINDOW = 20;
+    public static int WATER_BODY_MAX_SIZE = 1024;
+    public static int TREE_MAX_BLOCKS = 512;
+    public static boolean BIOME_REWRITE = true;
+    public static int BIOME_REWRITE_THRESHOLD = 384;
+    public static int MATURATION_TICKS_PER_SECTION = 1;
+    public static int RECENT_CONVERSIONS_SIZE = 256;
+    public static int RECENT_MATURATION_ATTEMPTS = 2;
+    public static boolean BIOME_AWARE_OUTPUTS = true;
+    public static int MOB_CHUNK_THRESHOLD = 64;
+    public static int MAX_MOB_CONVERSIONS_PER_CYCLE = 4;
+    public static int MOB_LOAD_CONVERSIONS_PER_TICK = 2;
+    public static boolean NETHER_SPAWNING = true;
+    public static int NETHER_SPAWN_ATTEMPTS = 2;
+    public static int NETHER_SPAWN_FULL_DENSITY = 256;
+    public static int PARTICLE_DISTANCE = 48;
+    public static int PARTICLE_PACKETS_PER_PLAYER = 32;
 
     public static void load() {
         if (Files.exists(CONFIG_PATH)) {
@@ -55,6 +76,27 @@ public class FesteringConfig {
         float mobCorruptionChance = 0.05f;
         boolean transformWaterToLava = true;
         int maxPortalsPerTick = 10;
+        boolean bulkSectionFill = false;
+        int bulkSectionsPerCycle = 1;
+        boolean quietConversions = true;
+        boolean chunkAffineSampling = false;
+        int chunkAffineWindow = 20;
+        int waterBodyMaxSize = 1024;
+        int treeMaxBlocks = 512;
+        boolean biomeRewrite = true;
+        int biomeRewriteThreshold = 384;
+        int maturationTicksPerSection = 1;
+        int recentConversionsSize = 256;
+        int recentMaturationAttempts = 2;
+        boolean biomeAwareOutputs = true;
+        int mobChunkThreshold = 64;
+        int maxMobConversionsPerCycle = 4;
+        int mobLoadConversionsPerTick = 2;
+        boolean netherSpawning = true;
+        int netherSpawnAttempts = 2;
+        int netherSpawnFullDensity = 256;
+        int particleDistance = 48;
+        int particlePacketsPerPlayer = 32;
 
         void applyTo() {
             SPREAD_INTERVAL_TICKS = spreadIntervalTicks;
@@ -64,6 +106,27 @@ public class FesteringConfig {
             MOB_CORRUPTION_CHANCE = mobCorruptionChance;
             TRANSFORM_WATER_TO_LAVA = transformWaterToLava;
             MAX_PORTALS_PER_TICK = maxPortalsPerTick;
+            BULK_SECTION_FILL = bulkSectionFill;
+            BULK_SECTIONS_PER_CYCLE = bulkSectionsPerCycle;
+            QUIET_CONVERSIONS = quietConversions;
+            CHUNK_AFFINE_SAMPLING = chunkAffineSampling;
+            CHUNK_AFFINE_WINDOW = chunkAffineWindow;
+            WATER_BODY_MAX_SIZE = waterBodyMaxSize;
+            TREE_MAX_BLOCKS = treeMaxBlocks;
+            BIOME_REWRITE = biomeRewrite;
+            BIOME_REWRITE_THRESHOLD = biomeRewriteThreshold;
+            MATURATION_TICKS_PER_SECTION = maturationTicksPerSection;
+            RECENT_CONVERSIONS_SIZE = recentConversionsSize;
+            RECENT_MATURATION_ATTEMPTS = recentMaturationAttempts;
+            BIOME_AWARE_OUTPUTS = biomeAwareOutputs;
+            MOB_CHUNK_THRESHOLD = mobChunkThreshold;
+            MAX_MOB_CONVERSIONS_PER_CYCLE = maxMobConversionsPerCycle;
+            MOB_LOAD_CONVERSIONS_PER_TICK = mobLoadConversionsPerTick;
+            NETHER_SPAWNING = netherSpawning;
+            NETHER_SPAWN_ATTEMPTS = netherSpawnAttempts;
+            NETHER_SPAWN_FULL_DENSITY = netherSpawnFullDensity;
+            PARTICLE_DISTANCE = particleDistance;
+            PARTICLE_PACKETS_PER_PLAYER = particlePacketsPerPlayer;
         }
 
         void readFrom() {
@@ -74,6 +137,27 @@ public class FesteringConfig {
             mobCorruptionChance = MOB_CORRUPTION_CHANCE;
             transformWaterToLava = TRANSFORM_WATER_TO_LAVA;
             maxPortalsPerTick = MAX_PORTALS_PER_TICK;
+            bulkSectionFill = BULK_SECTION_FILL;
+            bulkSectionsPerCycle = BULK_SECTIONS_PER_CYCLE;
+            quietConversions = QUIET_CONVERSIONS;
+            chunkAffineSampling = CHUNK_AFFINE_SAMPLING;
+            chunkAffineWindow = CHUNK_AFFINE_WINDOW;
+            waterBodyMaxSize = WATER_BODY_MAX_SIZE;
+            treeMaxBlocks = TREE_MAX_BLOCKS;
+            biomeRewrite = BIOME_REWRITE;
+            biomeRewriteThreshold = BIOME_REWRITE_THRESHOLD;
+            maturationTicksPerSection = MATURATION_TICKS_PER_SECTION;
+            recentConversionsSize = RECENT_CONVERSIONS_SIZE;
+            recentMaturationAttempts = RECENT_MATURATION_ATTEMPTS;
+            biomeAwareOutputs = BIOME_AWARE_OUTPUTS;
+            mobChunkThreshold = MOB_CHUNK_THRESHOLD;
+            maxMobConversionsPerCycle = MAX_MOB_CONVERSIONS_PER_CYCLE;
+            mobLoadConversionsPerTick = MOB_LOAD_CONVERSIONS_PER_TICK;
+            netherSpawning = NETHER_SPAWNING;
+            netherSpawnAttempts = NETHER_SPAWN_ATTEMPTS;
+            netherSpawnFullDensity = NETHER_SPAWN_FULL_DENSITY;
+            particleDistance = PARTICLE_DISTANCE;
+            particlePacketsPerPlayer = PARTICLE_PACKETS_PER_PLAYER;
         }
     }
 }
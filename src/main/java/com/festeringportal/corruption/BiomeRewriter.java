@@ -0,0 +1,111 @@
+package com.festeringportal.corruption;
+
+import com.festeringportal.config.FesteringConfig;
+import com.festeringportal.data.ChunkCorruptionIndex;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import java.util.ArrayList;
+import java.util.List;
+import net.minecraft.core.Holder;
+import net.minecraft.core.QuartPos;
+import net.minecraft.core.Registry;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.biome.Biome;
+import net.minecraft.world.level.biome.BiomeResolver;
+import net.minecraft.world.level.biome.Biomes;
+import net.minecraft.world.level.biome.Climate;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+
+/**
+ * Turns heavily corrupted chunks into nether biomes.
+ *
+ * <p>Conversions are counted per chunk as batches commit. Once a chunk passes
+ * BIOME_REWRITE_THRESHOLD, every section the corruption has reached gets its biome
+ * container replaced in one fill, with crimson forest, warped forest or soul sand
+ * valley depending on what the chunk mostly became. Watching clients then get
+ * one chunk-biomes packet covering every chunk rewritten in the batch.
+ */
+public class BiomeRewriter {
+
+    /**
+     * Count a block the batch just converted, if it became a nether block.
+     *
+     * @return true if this conversion carried the chunk over the rewrite threshold
+     */
+    public static boolean recordConversion(ChunkCorruptionIndex index, long chunkKey, int sectionY, BlockState previous, BlockState converted) {
+        if (!BlockTransformations.isNetherBlock(converted)) return false;
+        if (BlockTransformations.isNetherBlock(previous)) return false;
+
+        int[] entry = index.record(chunkKey, sectionY, kindOf(converted.getBlock()));
+        return FesteringConfig.BIOME_REWRITE
+            && entry[ChunkCorruptionIndex.REWRITTEN] == 0
+            && entry[ChunkCorruptionIndex.TOTAL] >= FesteringConfig.BIOME_REWRITE_THRESHOLD;
+    }
+
+    /** SOUL, WARPED or -1 for a nether block. Compares blocks only, so safe off the server thread. */
+    static int kindOf(Block block) {
+        if (block == Blocks.SOUL_SAND || block == Blocks.SOUL_SOIL) {
+            return ChunkCorruptionIndex.SOUL;
+        }
+        if (block == Blocks.WARPED_NYLIUM || block == Blocks.WARPED_WART_BLOCK
+                || block == Blocks.WARPED_STEM || block == Blocks.WARPED_ROOTS
+                || block == Blocks.WARPED_FUNGUS || block == Blocks.TWISTING_VINES
+                || block == Blocks.TWISTING_VINES_PLANT) {
+            return ChunkCorruptionIndex.WARPED;
+        }
+        return -1;
+    }
+
+    private static ResourceKey<Biome> biomeFor(int[] entry) {
+        int soul = entry[ChunkCorruptionIndex.SOUL];
+        int warped = entry[ChunkCorruptionIndex.WARPED];
+        int crimson = entry[ChunkCorruptionIndex.TOTAL] - soul - warped;
+
+        if (soul > warped && soul > crimson) return Biomes.SOUL_SAND_VALLEY;
+        if (warped > crimson) return Biomes.WARPED_FOREST;
+        return Biomes.CRIMSON_FOREST;
+    }
+
+    /**
+     * Rewrite the corrupted sections of each chunk and resend their biomes together.
+     */
+    public static void rewrite(ServerLevel world, ChunkCorruptionIndex index, LongSet chunkKeys) {
+        Registry<Biome> biomes = world.registryAccess().lookupOrThrow(Registries.BIOME);
+        Climate.Sampler sampler = world.getChunkSource().randomState().sampler();
+        List<ChunkAccess> rewritten = new ArrayList<>();
+
+        for (long chunkKey : chunkKeys) {
+            LevelChunk chunk = world.getChunkSource().getChunkNow(ChunkPos.getX(chunkKey), ChunkPos.getZ(chunkKey));
+            int[] entry = index.get(chunkKey);
+            if (chunk == null || entry == null) continue;
+
+            Holder<Biome> biome = biomes.getOrThrow(biomeFor(entry));
+            BiomeResolver resolver = (x, y, z, climate) -> biome;
+            ChunkPos chunkPos = chunk.getPos();
+            int quartX = QuartPos.fromBlock(chunkPos.getMinBlockX());
+            int quartZ = QuartPos.fromBlock(chunkPos.getMinBlockZ());
+
+            int minSection = Math.max(entry[ChunkCorruptionIndex.MIN_SECTION], chunk.getMinSectionY());
+            int maxSection = Math.min(entry[ChunkCorruptionIndex.MAX_SECTION], chunk.getMaxSectionY());
+            for (int sectionY = minSection; sectionY <= maxSection; sectionY++) {
+                LevelChunkSection section = chunk.getSection(chunk.getSectionIndexFromSectionY(sectionY));
+                section.fillBiomesFromNoise(resolver, sampler, quartX, QuartPos.fromSection(sectionY), quartZ);
+            }
+
+            chunk.markUnsaved();
+            index.markRewritten(chunkKey);
+            rewritten.add(chunk);
+        }
+
+        if (!rewritten.isEmpty()) {
+            world.getChunkSource().chunkMap.resendBiomesForChunks(rewritten);
+        }
+    }
+}
@@ -1,11 +1,21 @@
 package com.festeringportal.corruption;
 
+import net.minecraft.core.Direction;
+import net.minecraft.core.Holder;
+import net.minecraft.tags.BiomeTags;
+import net.minecraft.world.level.biome.Biome;
+import net.minecraft.world.level.biome.Biomes;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.block.state.properties.BlockStateProperties;
+import net.minecraft.world.level.block.state.properties.DoubleBlockHalf;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Function;
 
 /**
@@ -20,6 +30,70 @@ public class BlockTransformations {
     // State-preserving transformations (for blocks with directional properties)
     private static final Map<Block, Function<BlockState, BlockState>> STATE_TRANSFORMATIONS = new HashMap<>();
 
+    // Sources whose conversion must notify neighbours: redstone parts, connecting blocks,
+    // and anything that leaves air or fluid behind
+    private static final Set<Block> FULL_UPDATE_SOURCES = new HashSet<>();
+
+    // Per-state classification bits, indexed by global block state id
+    static final int FLAG_NETHER = 1;
+    static final int FLAG_IMMUNE = 1 << 1;
+    static final int FLAG_TRANSFORMABLE = 1 << 2;
+    static final int FLAG_WATER = 1 << 3;
+    static final int FLAG_UPPER_HALF = 1 << 4;
+    static final int FLAG_LIGHT_EMITTING = 1 << 5;
+    static final int FLAG_FULL_UPDATE = 1 << 6;
+
+    // Uniform alternatives that a simple transformation's output may be swapped for
+    private static final Map<Block, Block[]> ALTERNATIVES = new HashMap<>();
+
+    private static final float ALTERNATIVE_CHANCE = 0.20f;
+
+    /**
+     * The kind of landscape being corrupted, which steers some simple transformations
+     * toward the matching nether biome.
+     */
+    public enum BiomeCategory {
+        TEMPERATE,
+        /** Forests, jungles and taiga: toward crimson forest. */
+        CRIMSON,
+        /** Dry biomes with no rain or snow: toward soul sand valley. */
+        SOUL,
+        /** Cold and snowy biomes: toward basalt deltas. */
+        BASALT;
+
+        private static final BiomeCategory[] VALUES = values();
+
+        public static BiomeCategory of(Holder<Biome> biome) {
+            // Sections the biome rewrite already turned nether keep their character
+            if (biome.is(Biomes.CRIMSON_FOREST)) return CRIMSON;
+            if (biome.is(Biomes.SOUL_SAND_VALLEY)) return SOUL;
+            if (biome.is(Biomes.BASALT_DELTAS)) return BASALT;
+            if (biome.is(BiomeTags.IS_NETHER)) return TEMPERATE;
+
+            Biome value = biome.value();
+            if (value.getBaseTemperature() < 0.15f) return BASALT;
+            if (!value.hasPrecipitation()) return SOUL;
+            if (biome.is(BiomeTags.IS_FOREST) || biome.is(BiomeTags.IS_JUNGLE) || biome.is(BiomeTags.IS_TAIGA)) {
+                return CRIMSON;
+            }
+            return TEMPERATE;
+        }
+    }
+
+    // Per-biome replacements for simple transformations, keyed by source block
+    private static final Map<BiomeCategory, Map<Block, Block>> BIOME_TRANSFORMATIONS = new EnumMap<>(BiomeCategory.class);
+
+    /**
+     * Everything above flattened into arrays indexed by global block state id, with
+     * one output and alternative table per biome category.
+     * Built on first use rather than in the static initializer, so blocks registered
+     * by other mods after this class loads are covered. Read off-thread by the candidate index.
+     */
+    private record Compiled(byte[] flags, BlockState[][] outputs, AliasTable[][] alternatives,
+                            short[] features, MaturationRule[][] maturation) {}
+
+    private static volatile Compiled compiled;
+
     static {
         // === TERRAIN ===
         register(Blocks.GRASS_BLOCK, Blocks.NETHERRACK);
@@ -261,7 +335,7 @@ public class BlockTransformations {
 
         // === GLASS (corruption makes it opaque/dark) ===
         register(Blocks.GLASS, Blocks.TINTED_GLASS);
-        register(Blocks.GLASS_PANE, Blocks.IRON_BARS); // Corroded to iron bars
+        registerWithUpdates(Blocks.GLASS_PANE, Blocks.IRON_BARS); // Corroded to iron bars
 
         // === SLABS (preserve type: top/bottom/double) ===
         registerSlabTransformation(Blocks.OAK_SLAB, Blocks.CRIMSON_SLAB);
@@ -322,31 +396,31 @@ public class BlockTransformations {
         registerStairTransformation(Blocks.DEEPSLATE_TILE_STAIRS, Blocks.POLISHED_BLACKSTONE_BRICK_STAIRS);
 
         // === WALLS ===
-        register(Blocks.COBBLESTONE_WALL, Blocks.BLACKSTONE_WALL);
-        register(Blocks.MOSSY_COBBLESTONE_WALL, Blocks.BLACKSTONE_WALL);
-        register(Blocks.STONE_BRICK_WALL, Blocks.POLISHED_BLACKSTONE_BRICK_WALL);
-        register(Blocks.MOSSY_STONE_BRICK_WALL, Blocks.POLISHED_BLACKSTONE_BRICK_WALL);
-        register(Blocks.BRICK_WALL, Blocks.NETHER_BRICK_WALL);
-        register(Blocks.SANDSTONE_WALL, Blocks.NETHER_BRICK_WALL);
-        register(Blocks.RED_SANDSTONE_WALL, Blocks.RED_NETHER_BRICK_WALL);
-        register(Blocks.ANDESITE_WALL, Blocks.BLACKSTONE_WALL);
-        register(Blocks.DIORITE_WALL, Blocks.BLACKSTONE_WALL);
-        register(Blocks.GRANITE_WALL, Blocks.BLACKSTONE_WALL);
-        register(Blocks.COBBLED_DEEPSLATE_WALL, Blocks.BLACKSTONE_WALL);
-        register(Blocks.POLISHED_DEEPSLATE_WALL, Blocks.POLISHED_BLACKSTONE_WALL);
-        register(Blocks.DEEPSLATE_BRICK_WALL, Blocks.POLISHED_BLACKSTONE_BRICK_WALL);
-        register(Blocks.DEEPSLATE_TILE_WALL, Blocks.POLISHED_BLACKSTONE_BRICK_WALL);
+        registerWithUpdates(Blocks.COBBLESTONE_WALL, Blocks.BLACKSTONE_WALL);
+        registerWithUpdates(Blocks.MOSSY_COBBLESTONE_WALL, Blocks.BLACKSTONE_WALL);
+        registerWithUpdates(Blocks.STONE_BRICK_WALL, Blocks.POLISHED_BLACKSTONE_BRICK_WALL);
+        registerWithUpdates(Blocks.MOSSY_STONE_BRICK_WALL, Blocks.POLISHED_BLACKSTONE_BRICK_WALL);
+        registerWithUpdates(Blocks.BRICK_WALL, Blocks.NETHER_BRICK_WALL);
+        registerWithUpdates(Blocks.SANDSTONE_WALL, Blocks.NETHER_BRICK_WALL);
+        registerWithUpdates(Blocks.RED_SANDSTONE_WALL, Blocks.RED_NETHER_BRICK_WALL);
+        registerWithUpdates(Blocks.ANDESITE_WALL, Blocks.BLACKSTONE_WALL);
+        registerWithUpdates(Blocks.DIORITE_WALL, Blocks.BLACKSTONE_WALL);
+        registerWithUpdates(Blocks.GRANITE_WALL, Blocks.BLACKSTONE_WALL);
+        registerWithUpdates(Blocks.COBBLED_DEEPSLATE_WALL, Blocks.BLACKSTONE_WALL);
+        registerWithUpdates(Blocks.POLISHED_DEEPSLATE_WALL, Blocks.POLISHED_BLACKSTONE_WALL);
+        registerWithUpdates(Blocks.DEEPSLATE_BRICK_WALL, Blocks.POLISHED_BLACKSTONE_BRICK_WALL);
+        registerWithUpdates(Blocks.DEEPSLATE_TILE_WALL, Blocks.POLISHED_BLACKSTONE_BRICK_WALL);
 
         // === FENCES ===
-        register(Blocks.OAK_FENCE, Blocks.CRIMSON_FENCE);
-        register(Blocks.SPRUCE_FENCE, Blocks.CRIMSON_FENCE);
-        register(Blocks.BIRCH_FENCE, Blocks.WARPED_FENCE);
-        register(Blocks.JUNGLE_FENCE, Blocks.CRIMSON_FENCE);
-        register(Blocks.ACACIA_FENCE, Blocks.CRIMSON_FENCE);
-        register(Blocks.DARK_OAK_FENCE, Blocks.CRIMSON_FENCE);
-        register(Blocks.MANGROVE_FENCE, Blocks.CRIMSON_FENCE);
-        register(Blocks.CHERRY_FENCE, Blocks.WARPED_FENCE);
-        register(Blocks.BAMBOO_FENCE, Blocks.WARPED_FENCE);
+        registerWithUpdates(Blocks.OAK_FENCE, Blocks.CRIMSON_FENCE);
+        registerWithUpdates(Blocks.SPRUCE_FENCE, Blocks.CRIMSON_FENCE);
+        registerWithUpdates(Blocks.BIRCH_FENCE, Blocks.WARPED_FENCE);
+        registerWithUpdates(Blocks.JUNGLE_FENCE, Blocks.CRIMSON_FENCE);
+        registerWithUpdates(Blocks.ACACIA_FENCE, Blocks.CRIMSON_FENCE);
+        registerWithUpdates(Blocks.DARK_OAK_FENCE, Blocks.CRIMSON_FENCE);
+        registerWithUpdates(Blocks.MANGROVE_FENCE, Blocks.CRIMSON_FENCE);
+        registerWithUpdates(Blocks.CHERRY_FENCE, Blocks.WARPED_FENCE);
+        registerWithUpdates(Blocks.BAMBOO_FENCE, Blocks.WARPED_FENCE);
 
         // === FENCE GATES (preserve facing/open/in_wall/powered) ===
         registerFenceGateTransformation(Blocks.OAK_FENCE_GATE, Blocks.CRIMSON_FENCE_GATE);
@@ -394,16 +468,16 @@ public class BlockTransformations {
         registerButtonTransformation(Blocks.STONE_BUTTON, Blocks.POLISHED_BLACKSTONE_BUTTON);
 
         // === PRESSURE PLATES ===
-        register(Blocks.OAK_PRESSURE_PLATE, Blocks.CRIMSON_PRESSURE_PLATE);
-        register(Blocks.SPRUCE_PRESSURE_PLATE, Blocks.CRIMSON_PRESSURE_PLATE);
-        register(Blocks.BIRCH_PRESSURE_PLATE, Blocks.WARPED_PRESSURE_PLATE);
-        register(Blocks.JUNGLE_PRESSURE_PLATE, Blocks.CRIMSON_PRESSURE_PLATE);
-        register(Blocks.ACACIA_PRESSURE_PLATE, Blocks.CRIMSON_PRESSURE_PLATE);
-        register(Blocks.DARK_OAK_PRESSURE_PLATE, Blocks.CRIMSON_PRESSURE_PLATE);
-        register(Blocks.MANGROVE_PRESSURE_PLATE, Blocks.CRIMSON_PRESSURE_PLATE);
-        register(Blocks.CHERRY_PRESSURE_PLATE, Blocks.WARPED_PRESSURE_PLATE);
-        register(Blocks.BAMBOO_PRESSURE_PLATE, Blocks.WARPED_PRESSURE_PLATE);
-        register(Blocks.STONE_PRESSURE_PLATE, Blocks.POLISHED_BLACKSTONE_PRESSURE_PLATE);
+        registerWithUpdates(Blocks.OAK_PRESSURE_PLATE, Blocks.CRIMSON_PRESSURE_PLATE);
+        registerWithUpdates(Blocks.SPRUCE_PRESSURE_PLATE, Blocks.CRIMSON_PRESSURE_PLATE);
+        registerWithUpdates(Blocks.BIRCH_PRESSURE_PLATE, Blocks.WARPED_PRESSURE_PLATE);
+        registerWithUpdates(Blocks.JUNGLE_PRESSURE_PLATE, Blocks.CRIMSON_PRESSURE_PLATE);
+        registerWithUpdates(Blocks.ACACIA_PRESSURE_PLATE, Blocks.CRIMSON_PRESSURE_PLATE);
+        registerWithUpdates(Blocks.DARK_OAK_PRESSURE_PLATE, Blocks.CRIMSON_PRESSURE_PLATE);
+        registerWithUpdates(Blocks.MANGROVE_PRESSURE_PLATE, Blocks.CRIMSON_PRESSURE_PLATE);
+        registerWithUpdates(Blocks.CHERRY_PRESSURE_PLATE, Blocks.WARPED_PRESSURE_PLATE);
+        registerWithUpdates(Blocks.BAMBOO_PRESSURE_PLATE, Blocks.WARPED_PRESSURE_PLATE);
+        registerWithUpdates(Blocks.STONE_PRESSURE_PLATE, Blocks.POLISHED_BLACKSTONE_PRESSURE_PLATE);
 
         // === SIGNS ===
         register(Blocks.OAK_SIGN, Blocks.CRIMSON_SIGN);
@@ -545,22 +619,22 @@ public class BlockTransformations {
         register(Blocks.STAINED_GLASS.black(), Blocks.TINTED_GLASS);
 
         // === STAINED GLASS PANES (all colors -> IRON_BARS) ===
-        register(Blocks.STAINED_GLASS_PANE.white(), Blocks.IRON_BARS);
-        register(Blocks.STAINED_GLASS_PANE.orange(), Blocks.IRON_BARS);
-        register(Blocks.STAINED_GLASS_PANE.magenta(), Blocks.IRON_BARS);
-        register(Blocks.STAINED_GLASS_PANE.lightBlue(), Blocks.IRON_BARS);
-        register(Blocks.STAINED_GLASS_PANE.yellow(), Blocks.IRON_BARS);
-        register(Blocks.STAINED_GLASS_PANE.lime(), Blocks.IRON_BARS);
-        register(Blocks.STAINED_GLASS_PANE.pink(), Blocks.IRON_BARS);
-        register(Blocks.STAINED_GLASS_PANE.gray(), Blocks.IRON_BARS);
-        register(Blocks.STAINED_GLASS_PANE.lightGray(), Blocks.IRON_BARS);
-        register(Blocks.STAINED_GLASS_PANE.cyan(), Blocks.IRON_BARS);
-        register(Blocks.STAINED_GLASS_PANE.purple(), Blocks.IRON_BARS);
-        register(Blocks.STAINED_GLASS_PANE.blue(), Blocks.IRON_BARS);
-        register(Blocks.STAINED_GLASS_PANE.brown(), Blocks.IRON_BARS);
-        register(Blocks.STAINED_GLASS_PANE.green(), Blocks.IRON_BARS);
-        register(Blocks.STAINED_GLASS_PANE.red(), Blocks.IRON_BARS);
-        register(Blocks.STAINED_GLASS_PANE.black(), Blocks.IRON_BARS);
+        registerWithUpdates(Blocks.STAINED_GLASS_PANE.white(), Blocks.IRON_BARS);
+        registerWithUpdates(Blocks.STAINED_GLASS_PANE.orange(), Blocks.IRON_BARS);
+        registerWithUpdates(Blocks.STAINED_GLASS_PANE.magenta(), Blocks.IRON_BARS);
+        registerWithUpdates(Blocks.STAINED_GLASS_PANE.lightBlue(), Blocks.IRON_BARS);
+        registerWithUpdates(Blocks.STAINED_GLASS_PANE.yellow(), Blocks.IRON_BARS);
+        registerWithUpdates(Blocks.STAINED_GLASS_PANE.lime(), Blocks.IRON_BARS);
+        registerWithUpdates(Blocks.STAINED_GLASS_PANE.pink(), Blocks.IRON_BARS);
+        registerWithUpdates(Blocks.STAINED_GLASS_PANE.gray(), Blocks.IRON_BARS);
+        registerWithUpdates(Blocks.STAINED_GLASS_PANE.lightGray(), Blocks.IRON_BARS);
+        registerWithUpdates(Blocks.STAINED_GLASS_PANE.cyan(), Blocks.IRON_BARS);
+        registerWithUpdates(Blocks.STAINED_GLASS_PANE.purple(), Blocks.IRON_BARS);
+        registerWithUpdates(Blocks.STAINED_GLASS_PANE.blue(), Blocks.IRON_BARS);
+        registerWithUpdates(Blocks.STAINED_GLASS_PANE.brown(), Blocks.IRON_BARS);
+        registerWithUpdates(Blocks.STAINED_GLASS_PANE.green(), Blocks.IRON_BARS);
+        registerWithUpdates(Blocks.STAINED_GLASS_PANE.red(), Blocks.IRON_BARS);
+        registerWithUpdates(Blocks.STAINED_GLASS_PANE.black(), Blocks.IRON_BARS);
 
         // === COPPER FAMILY ===
         register(Blocks.COPPER_BLOCK.weathering().unaffected(), Blocks.NETHER_BRICKS);
@@ -626,9 +700,23 @@ public class BlockTransformations {
 
     /**
      * Register a simple block-to-block transformation.
+     * Conversions to air or lava always notify neighbours: whatever rested on or
+     * against the old block has to find out it is gone.
      */
     private static void register(Block from, Block to) {
         SIMPLE_TRANSFORMATIONS.put(from, to);
+        if (to == Blocks.AIR || to == Blocks.LAVA) {
+            FULL_UPDATE_SOURCES.add(from);
+        }
+    }
+
+    /**
+     * Register a simple transformation whose output connects to or powers its
+     * neighbours (fences, walls, panes, pressure plates), so it needs full updates.
+     */
+    private static void registerWithUpdates(Block from, Block to) {
+        register(from, to);
+        FULL_UPDATE_SOURCES.add(from);
     }
 
     /**
@@ -693,6 +781,7 @@ public class BlockTransformations {
      * DOOR_HINGE, OPEN, and POWERED properties.
      */
     private static void registerDoorTransformation(Block from, Block to) {
+        FULL_UPDATE_SOURCES.add(from);
         STATE_TRANSFORMATIONS.put(from, state -> {
             BlockState newState = to.defaultBlockState();
             if (state.hasProperty(BlockStateProperties.HORIZONTAL_FACING) && newState.hasProperty(BlockStateProperties.HORIZONTAL_FACING)) {
@@ -719,6 +808,7 @@ public class BlockTransformations {
      * OPEN, POWERED, and WATERLOGGED properties.
      */
     private static void registerTrapdoorTransformation(Block from, Block to) {
+        FULL_UPDATE_SOURCES.add(from);
         STATE_TRANSFORMATIONS.put(from, state -> {
             BlockState newState = to.defaultBlockState();
             if (state.hasProperty(BlockStateProperties.HORIZONTAL_FACING) && newState.hasProperty(BlockStateProperties.HORIZONTAL_FACING)) {
@@ -745,6 +835,7 @@ public class BlockTransformations {
      * OPEN, and POWERED properties.
      */
     private static void registerFenceGateTransformation(Block from, Block to) {
+        FULL_UPDATE_SOURCES.add(from);
         STATE_TRANSFORMATIONS.put(from, state -> {
             BlockState newState = to.defaultBlockState();
             if (state.hasProperty(BlockStateProperties.HORIZONTAL_FACING) && newState.hasProperty(BlockStateProperties.HORIZONTAL_FACING)) {
@@ -768,6 +859,7 @@ public class BlockTransformations {
      * HORIZONTAL_FACING, and POWERED properties.
      */
     private static void registerButtonTransformation(Block from, Block to) {
+        FULL_UPDATE_SOURCES.add(from);
         STATE_TRANSFORMATIONS.put(from, state -> {
             BlockState newState = to.defaultBlockState();
             if (state.hasProperty(BlockStateProperties.ATTACH_FACE) && newState.hasProperty(BlockStateProperties.ATTACH_FACE)) {
@@ -801,104 +893,322 @@ public class BlockTransformations {
         Blocks.POLISHED_BLACKSTONE
     };
 
+    static {
+        registerAlternatives(new Block[]{Blocks.NETHERRACK, Blocks.SOUL_SOIL, Blocks.SOUL_SAND}, BASE_NETHER_TERRAIN);
+        registerAlternatives(new Block[]{Blocks.BASALT, Blocks.BLACKSTONE}, BASE_NETHER_STONE);
+        // Wart blocks, stems and fungus can swap between crimson and warped
+        registerAlternatives(new Block[]{Blocks.NETHER_WART_BLOCK, Blocks.WARPED_WART_BLOCK},
+            Blocks.NETHER_WART_BLOCK, Blocks.WARPED_WART_BLOCK);
+        registerAlternatives(new Block[]{Blocks.CRIMSON_STEM, Blocks.WARPED_STEM},
+            Blocks.CRIMSON_STEM, Blocks.WARPED_STEM);
+        registerAlternatives(new Block[]{Blocks.CRIMSON_FUNGUS, Blocks.WARPED_FUNGUS},
+            Blocks.CRIMSON_FUNGUS, Blocks.WARPED_FUNGUS);
+        // Nether bricks can become red nether bricks
+        registerAlternatives(new Block[]{Blocks.NETHER_BRICKS}, Blocks.NETHER_BRICKS, Blocks.RED_NETHER_BRICKS);
+        // Roots/sprouts can vary
+        registerAlternatives(new Block[]{Blocks.CRIMSON_ROOTS, Blocks.WARPED_ROOTS, Blocks.NETHER_SPROUTS},
+            Blocks.CRIMSON_ROOTS, Blocks.WARPED_ROOTS, Blocks.NETHER_SPROUTS);
+    }
+
+    static {
+        for (BiomeCategory category : BiomeCategory.VALUES) {
+            BIOME_TRANSFORMATIONS.put(category, new HashMap<>());
+        }
+
+        // Forests grow crimson: nylium underfoot, wart overhead
+        registerBiome(BiomeCategory.CRIMSON, Blocks.GRASS_BLOCK, Blocks.CRIMSON_NYLIUM);
+        registerBiome(BiomeCategory.CRIMSON, Blocks.PODZOL, Blocks.CRIMSON_NYLIUM);
+        registerBiome(BiomeCategory.CRIMSON, Blocks.BIRCH_LEAVES, Blocks.NETHER_WART_BLOCK);
+        registerBiome(BiomeCategory.CRIMSON, Blocks.CHERRY_LEAVES, Blocks.NETHER_WART_BLOCK);
+        registerBiome(BiomeCategory.CRIMSON, Blocks.RED_MUSHROOM, Blocks.CRIMSON_FUNGUS);
+        registerBiome(BiomeCategory.CRIMSON, Blocks.MOSS_CARPET, Blocks.CRIMSON_ROOTS);
+
+        // Deserts and badlands dry out into soul soil
+        registerBiome(BiomeCategory.SOUL, Blocks.GRASS_BLOCK, Blocks.SOUL_SOIL);
+        registerBiome(BiomeCategory.SOUL, Blocks.SANDSTONE, Blocks.SOUL_SOIL);
+        registerBiome(BiomeCategory.SOUL, Blocks.RED_SANDSTONE, Blocks.SOUL_SOIL);
+        registerBiome(BiomeCategory.SOUL, Blocks.TERRACOTTA, Blocks.SOUL_SOIL);
+        registerBiome(BiomeCategory.SOUL, Blocks.GRAVEL, Blocks.SOUL_SOIL);
+
+        // Cold ground cracks into basalt and blackstone
+        registerBiome(BiomeCategory.BASALT, Blocks.GRASS_BLOCK, Blocks.BLACKSTONE);
+        registerBiome(BiomeCategory.BASALT, Blocks.DIRT, Blocks.BASALT);
+        registerBiome(BiomeCategory.BASALT, Blocks.COARSE_DIRT, Blocks.BASALT);
+        registerBiome(BiomeCategory.BASALT, Blocks.PODZOL, Blocks.BASALT);
+        registerBiome(BiomeCategory.BASALT, Blocks.COBBLESTONE, Blocks.BASALT);
+        registerBiome(BiomeCategory.BASALT, Blocks.GRAVEL, Blocks.BLACKSTONE);
+        registerBiome(BiomeCategory.BASALT, Blocks.SAND, Blocks.BLACKSTONE);
+        registerBiome(BiomeCategory.BASALT, Blocks.CLAY, Blocks.MAGMA_BLOCK);
+    }
+
     /**
-     * Get the transformation result for a block state.
+     * Replace a simple transformation's output in one biome category.
+     */
+    private static void registerBiome(BiomeCategory category, Block from, Block to) {
+        BIOME_TRANSFORMATIONS.get(category).put(from, to);
+    }
+
+    /**
+     * Let each of the outputs be swapped, ALTERNATIVE_CHANCE of the time, for one of the choices.
+     */
+    private static void registerAlternatives(Block[] outputs, Block... choices) {
+        for (Block output : outputs) {
+            ALTERNATIVES.put(output, choices);
+        }
+    }
+
+    /**
+     * Get the transformation result for a block state, ignoring biome.
+     *
+     * @see #getTransformation(BlockState, BiomeCategory, net.minecraft.util.RandomSource)
+     */
+    public static BlockState getTransformation(BlockState input, net.minecraft.util.RandomSource random) {
+        return getTransformation(input, BiomeCategory.TEMPERATE, random);
+    }
+
+    /**
+     * Get the transformation result for a block state in the given biome category.
      * Has a 20% chance to substitute a random alternative base nether material.
      *
      * @param input The input block state
+     * @param category The biome category of the section being corrupted
      * @param random The random source to use for diversity rolls
      * @return The transformed block state, or null if no transformation exists
      */
-    public static BlockState getTransformation(BlockState input, net.minecraft.util.RandomSource random) {
+    public static BlockState getTransformation(BlockState input, BiomeCategory category, net.minecraft.util.RandomSource random) {
+        Compiled tables = tables();
+        int id = Block.getId(input);
+        BlockState[] outputs = tables.outputs()[category.ordinal()];
+        if (id >= outputs.length) {
+            return computeOutput(input, category);
+        }
+
+        AliasTable alternatives = tables.alternatives()[category.ordinal()][id];
+        return alternatives != null ? alternatives.sample(random) : outputs[id];
+    }
+
+    /**
+     * The simple output for a block in a biome category: the category's replacement
+     * if it has one, the plain registration otherwise.
+     */
+    private static Block simpleOutput(Block input, BiomeCategory category) {
+        Block replacement = BIOME_TRANSFORMATIONS.get(category).get(input);
+        return replacement != null ? replacement : SIMPLE_TRANSFORMATIONS.get(input);
+    }
+
+    /**
+     * The output for a state with no alternative swapped in, straight from the registrations.
+     * Datapack rules and state-preserving transformations are the same in every biome.
+     */
+    private static BlockState computeOutput(BlockState input, BiomeCategory category) {
         Block inputBlock = input.getBlock();
 
+        // Datapack and API rules take precedence over the built-in table
+        TransformationRules.Resolved rule = TransformationRules.get(inputBlock);
+        if (rule != null) {
+            return rule.target() == inputBlock ? null : rule.apply(input);
+        }
+
         // Check state-preserving transformations first
-        if (STATE_TRANSFORMATIONS.containsKey(inputBlock)) {
-            return STATE_TRANSFORMATIONS.get(inputBlock).apply(input);
+        Function<BlockState, BlockState> stateTransformation = STATE_TRANSFORMATIONS.get(inputBlock);
+        if (stateTransformation != null) {
+            return stateTransformation.apply(input);
         }
 
         // Check simple block transformations
-        if (SIMPLE_TRANSFORMATIONS.containsKey(inputBlock)) {
-            Block outputBlock = SIMPLE_TRANSFORMATIONS.get(inputBlock);
-            // Don't transform to the same block
-            if (outputBlock == inputBlock) {
-                return null;
-            }
+        Block outputBlock = simpleOutput(inputBlock, category);
+        // Don't transform to the same block
+        if (outputBlock == null || outputBlock == inputBlock) {
+            return null;
+        }
+        return outputBlock.defaultBlockState();
+    }
 
-            // 20% chance to substitute with random alternative
-            if (random.nextFloat() < 0.20f) {
-                outputBlock = getRandomAlternative(outputBlock, random);
-            }
+    /**
+     * Output distribution for a simple transformation with alternatives: the output
+     * keeps the remaining weight, and each choice gets an equal share of ALTERNATIVE_CHANCE.
+     */
+    private static AliasTable computeAlternatives(BlockState input, BiomeCategory category) {
+        Block inputBlock = input.getBlock();
+        if (TransformationRules.get(inputBlock) != null) return null;
+        if (STATE_TRANSFORMATIONS.containsKey(inputBlock)) return null;
+
+        Block outputBlock = simpleOutput(inputBlock, category);
+        if (outputBlock == null || outputBlock == inputBlock) return null;
+
+        Block[] choices = ALTERNATIVES.get(outputBlock);
+        if (choices == null) return null;
 
-            return outputBlock.defaultBlockState();
+        Map<Block, Float> weights = new LinkedHashMap<>();
+        weights.put(outputBlock, 1.0f - ALTERNATIVE_CHANCE);
+        for (Block choice : choices) {
+            weights.merge(choice, ALTERNATIVE_CHANCE / choices.length, Float::sum);
         }
 
-        // No transformation available
-        return null;
+        BlockState[] outcomes = new BlockState[weights.size()];
+        float[] probabilities = new float[weights.size()];
+        int i = 0;
+        for (Map.Entry<Block, Float> entry : weights.entrySet()) {
+            outcomes[i] = entry.getKey().defaultBlockState();
+            probabilities[i] = entry.getValue();
+            i++;
+        }
+        return new AliasTable(outcomes, probabilities);
     }
 
     /**
-     * Get a random alternative block for diversity.
-     * Returns the original if no alternatives apply.
+     * Weighted choice in constant time (Vose's alias method), drawn with one float.
      */
-    private static Block getRandomAlternative(Block original, net.minecraft.util.RandomSource random) {
-        // Terrain blocks (grass, dirt, etc -> netherrack/soul soil)
-        if (original == Blocks.NETHERRACK || original == Blocks.SOUL_SOIL || original == Blocks.SOUL_SAND) {
-            return BASE_NETHER_TERRAIN[random.nextInt(BASE_NETHER_TERRAIN.length)];
-        }
+    static final class AliasTable {
+        private final BlockState[] outcomes;
+        private final float[] threshold;
+        private final int[] alias;
+
+        AliasTable(BlockState[] outcomes, float[] probabilities) {
+            int n = outcomes.length;
+            this.outcomes = outcomes;
+            this.threshold = new float[n];
+            this.alias = new int[n];
+
+            float total = 0;
+            for (float p : probabilities) total += p;
+
+            float[] scaled = new float[n];
+            int[] small = new int[n];
+            int[] large = new int[n];
+            int smallCount = 0;
+            int largeCount = 0;
+            for (int i = 0; i < n; i++) {
+                scaled[i] = probabilities[i] * n / total;
+                if (scaled[i] < 1.0f) small[smallCount++] = i;
+                else large[largeCount++] = i;
+            }
 
-        // Stone blocks (stone, cobble, etc -> basalt/blackstone)
-        if (original == Blocks.BASALT || original == Blocks.BLACKSTONE) {
-            return BASE_NETHER_STONE[random.nextInt(BASE_NETHER_STONE.length)];
+            while (smallCount > 0 && largeCount > 0) {
+                int less = small[--smallCount];
+                int more = large[--largeCount];
+                threshold[less] = scaled[less];
+                alias[less] = more;
+                scaled[more] -= 1.0f - scaled[less];
+                if (scaled[more] < 1.0f) small[smallCount++] = more;
+                else large[largeCount++] = more;
+            }
+            // Whatever is left is full up to rounding
+            while (largeCount > 0) threshold[large[--largeCount]] = 1.0f;
+            while (smallCount > 0) threshold[small[--smallCount]] = 1.0f;
         }
 
-        // Wart blocks can swap between crimson/warped
-        if (original == Blocks.NETHER_WART_BLOCK) {
-            return random.nextBoolean() ? Blocks.NETHER_WART_BLOCK : Blocks.WARPED_WART_BLOCK;
-        }
-        if (original == Blocks.WARPED_WART_BLOCK) {
-            return random.nextBoolean() ? Blocks.WARPED_WART_BLOCK : Blocks.NETHER_WART_BLOCK;
+        BlockState sample(net.minecraft.util.RandomSource random) {
+            // Column from the integer part, coin from the fraction
+            float u = random.nextFloat() * outcomes.length;
+            int column = Math.min((int) u, outcomes.length - 1);
+            return u - column < threshold[column] ? outcomes[column] : outcomes[alias[column]];
         }
+    }
 
-        // Stems can swap between crimson/warped
-        if (original == Blocks.CRIMSON_STEM) {
-            return random.nextBoolean() ? Blocks.CRIMSON_STEM : Blocks.WARPED_STEM;
-        }
-        if (original == Blocks.WARPED_STEM) {
-            return random.nextBoolean() ? Blocks.WARPED_STEM : Blocks.CRIMSON_STEM;
-        }
+    // ==================== CLASSIFICATION TABLE ====================
 
-        // Nether bricks can become red nether bricks
-        if (original == Blocks.NETHER_BRICKS) {
-            return random.nextBoolean() ? Blocks.NETHER_BRICKS : Blocks.RED_NETHER_BRICKS;
-        }
+    /**
+     * The classification bits for a state: one id lookup and one array read.
+     */
+    static int flags(BlockState state) {
+        byte[] table = tables().flags();
+        int id = Block.getId(state);
+        // States registered after the table was built get classified on the spot
+        return id < table.length ? table[id] : computeFlags(state);
+    }
 
-        // Roots/sprouts can vary
-        if (original == Blocks.CRIMSON_ROOTS || original == Blocks.WARPED_ROOTS || original == Blocks.NETHER_SPROUTS) {
-            Block[] roots = {Blocks.CRIMSON_ROOTS, Blocks.WARPED_ROOTS, Blocks.NETHER_SPROUTS};
-            return roots[random.nextInt(roots.length)];
+    private static Compiled tables() {
+        Compiled tables = compiled;
+        return tables != null ? tables : compile();
+    }
+
+    /**
+     * Drop the compiled tables so the next lookup rebuilds them from the current rules.
+     */
+    static synchronized void invalidate() {
+        compiled = null;
+    }
+
+    private static synchronized Compiled compile() {
+        if (compiled != null) return compiled;
+
+        int size = Block.BLOCK_STATE_REGISTRY.size();
+        byte[] flags = new byte[size];
+        BlockState[][] outputs = new BlockState[BiomeCategory.VALUES.length][size];
+        AliasTable[][] alternatives = new AliasTable[BiomeCategory.VALUES.length][size];
+        short[] features = new short[size];
+        MaturationRule[][] maturation = new MaturationRule[size][];
+
+        for (BlockState state : Block.BLOCK_STATE_REGISTRY) {
+            int id = Block.getId(state);
+            flags[id] = (byte) computeFlags(state);
+            for (BiomeCategory category : BiomeCategory.VALUES) {
+                int c = category.ordinal();
+                if (c > 0 && !BIOME_TRANSFORMATIONS.get(category).containsKey(state.getBlock())) {
+                    // No replacement in this category: share the default entries
+                    outputs[c][id] = outputs[0][id];
+                    alternatives[c][id] = alternatives[0][id];
+                } else {
+                    outputs[c][id] = computeOutput(state, category);
+                    alternatives[c][id] = computeAlternatives(state, category);
+                }
+            }
+            features[id] = (short) computeNeighborFeatures(state);
+            maturation[id] = MATURATION_RULES.get(state.getBlock());
         }
 
-        // Fungus can vary
-        if (original == Blocks.CRIMSON_FUNGUS || original == Blocks.WARPED_FUNGUS) {
-            return random.nextBoolean() ? Blocks.CRIMSON_FUNGUS : Blocks.WARPED_FUNGUS;
+        compiled = new Compiled(flags, outputs, alternatives, features, maturation);
+        return compiled;
+    }
+
+    private static int computeFlags(BlockState state) {
+        Block block = state.getBlock();
+        int flags = 0;
+
+        if (computeNetherBlock(block)) flags |= FLAG_NETHER;
+        if (computeImmune(state)) flags |= FLAG_IMMUNE;
+        TransformationRules.Resolved rule = TransformationRules.get(block);
+        if (rule != null) {
+            if (rule.target() != block) flags |= FLAG_TRANSFORMABLE;
+            if (rule.fullUpdate() || rule.target() == Blocks.AIR || rule.target() == Blocks.LAVA) flags |= FLAG_FULL_UPDATE;
+        } else if (SIMPLE_TRANSFORMATIONS.containsKey(block) || STATE_TRANSFORMATIONS.containsKey(block)) {
+            flags |= FLAG_TRANSFORMABLE;
+        }
+        if (block == Blocks.WATER) flags |= FLAG_WATER;
+        if (state.hasProperty(BlockStateProperties.DOUBLE_BLOCK_HALF)
+                && state.getValue(BlockStateProperties.DOUBLE_BLOCK_HALF) == DoubleBlockHalf.UPPER) {
+            flags |= FLAG_UPPER_HALF;
         }
+        if (state.getLightEmission() > 0) flags |= FLAG_LIGHT_EMITTING;
+        if (FULL_UPDATE_SOURCES.contains(block)) flags |= FLAG_FULL_UPDATE;
 
-        return original;
+        return flags;
     }
 
     /**
      * Check if a block can be transformed.
      */
     public static boolean canTransform(BlockState state) {
-        Block block = state.getBlock();
-        return SIMPLE_TRANSFORMATIONS.containsKey(block) || STATE_TRANSFORMATIONS.containsKey(block);
+        return (flags(state) & FLAG_TRANSFORMABLE) != 0;
+    }
+
+    /**
+     * Check if converting this block must notify its neighbours with a full update.
+     * Everything else can be written quietly.
+     */
+    public static boolean needsFullUpdate(BlockState state) {
+        return (flags(state) & FLAG_FULL_UPDATE) != 0;
     }
 
     /**
      * Check if a block is immune to corruption.
      */
     public static boolean isImmune(BlockState state) {
+        return (flags(state) & FLAG_IMMUNE) != 0;
+    }
+
+    private static boolean computeImmune(BlockState state) {
         Block block = state.getBlock();
 
         // Portal frame blocks are immune
@@ -916,7 +1226,7 @@ public class BlockTransformations {
         }
 
         // Nether blocks are immune (already corrupted)
-        if (isNetherBlock(block)) {
+        if (computeNetherBlock(block)) {
             return true;
         }
 
@@ -932,199 +1242,209 @@ public class BlockTransformations {
     // Nether blocks can "mature" or "worsen" based on neighboring blocks
     // This creates diverse, organic corruption patterns
 
+    // What a block contributes to its neighbours' maturation, one bit per feature
+    static final int FEATURE_CRIMSON = 1;
+    static final int FEATURE_WARPED = 1 << 1;
+    static final int FEATURE_LAVA = 1 << 2;
+    static final int FEATURE_MAGMA = 1 << 3;
+    static final int FEATURE_SOUL_SAND = 1 << 4;
+    static final int FEATURE_POLISHED = 1 << 5;
+    static final int FEATURE_BLACKSTONE = 1 << 6;
+    static final int FEATURE_GOLD = 1 << 7;
+    static final int FEATURE_AIR = 1 << 8;
+    static final int FEATURE_WATER = 1 << 9;
+    // Set by the context, not the table: the block above is air
+    static final int FEATURE_AIR_ABOVE = 1 << 10;
+
+    private static final int FEATURE_ANY = 0;
+    private static final int FEATURE_COOLING = FEATURE_AIR | FEATURE_WATER;
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
     /**
-     * Attempt to mature/evolve a nether block based on its neighbors.
-     * Returns a new state if the block should evolve, null otherwise.
+     * One step of a block's maturation cascade: if any of the features are present
+     * (or FEATURE_ANY), the lava count is within range, and the roll succeeds,
+     * the block becomes the result. Steps are tried in order.
      */
-    public static BlockState getMatureTransformation(BlockState currentState, NeighborContext neighbors) {
-        Block block = currentState.getBlock();
-
-        // Netherrack can become nylium if near fungus/stems, or magma near lava
-        if (block == Blocks.NETHERRACK) {
-            // Graduated lava checks (higher lava count = higher chance)
-            int lavaCount = neighbors.getLavaCount();
-            if (lavaCount >= 2 && neighbors.random.nextFloat() < 0.25f) {
-                return Blocks.MAGMA_BLOCK.defaultBlockState();
-            }
-            if (neighbors.hasLava() && neighbors.random.nextFloat() < 0.15f) {
-                return Blocks.MAGMA_BLOCK.defaultBlockState();
-            }
-            // Nylium checks
-            if (neighbors.hasCrimsonInfluence() && neighbors.random.nextFloat() < 0.3f) {
-                return Blocks.CRIMSON_NYLIUM.defaultBlockState();
-            }
-            if (neighbors.hasWarpedInfluence() && neighbors.random.nextFloat() < 0.3f) {
-                return Blocks.WARPED_NYLIUM.defaultBlockState();
-            }
+    private record MaturationRule(int anyOf, int minLava, int maxLava, float chance, BlockState result) {
+        boolean matches(int features, int lavaCount) {
+            return (anyOf == FEATURE_ANY || (features & anyOf) != 0)
+                && lavaCount >= minLava && lavaCount <= maxLava;
         }
+    }
 
-        // Soul soil can become soul sand (sinking effect spreads)
-        if (block == Blocks.SOUL_SOIL) {
-            if (neighbors.hasSoulSand() && neighbors.random.nextFloat() < 0.25f) {
-                return Blocks.SOUL_SAND.defaultBlockState();
-            }
-        }
+    private static final Map<Block, MaturationRule[]> MATURATION_RULES = new HashMap<>();
 
-        // Basalt can become polished or smooth variants
-        if (block == Blocks.BASALT) {
-            if (neighbors.hasPolishedStone() && neighbors.random.nextFloat() < 0.2f) {
-                return Blocks.POLISHED_BASALT.defaultBlockState();
-            }
-            if (neighbors.hasBlackstone() && neighbors.random.nextFloat() < 0.15f) {
-                return Blocks.BLACKSTONE.defaultBlockState();
-            }
-        }
+    static {
+        // Netherrack can become magma near lava (more lava, higher chance) or nylium near fungus/stems
+        registerMaturation(Blocks.NETHERRACK,
+            lavaRule(2, 6, 0.25f, Blocks.MAGMA_BLOCK),
+            lavaRule(1, 6, 0.15f, Blocks.MAGMA_BLOCK),
+            rule(FEATURE_CRIMSON, 0.3f, Blocks.CRIMSON_NYLIUM),
+            rule(FEATURE_WARPED, 0.3f, Blocks.WARPED_NYLIUM));
 
-        // Blackstone can become gilded near gold
-        if (block == Blocks.BLACKSTONE) {
-            if (neighbors.hasGold() && neighbors.random.nextFloat() < 0.1f) {
-                return Blocks.GILDED_BLACKSTONE.defaultBlockState();
-            }
-            if (neighbors.hasPolishedStone() && neighbors.random.nextFloat() < 0.2f) {
-                return Blocks.POLISHED_BLACKSTONE.defaultBlockState();
-            }
-        }
+        // Soul soil can become soul sand (sinking effect spreads)
+        registerMaturation(Blocks.SOUL_SOIL,
+            rule(FEATURE_SOUL_SAND, 0.25f, Blocks.SOUL_SAND));
+
+        // Basalt can become polished or blackstone
+        registerMaturation(Blocks.BASALT,
+            rule(FEATURE_POLISHED, 0.2f, Blocks.POLISHED_BASALT),
+            rule(FEATURE_BLACKSTONE, 0.15f, Blocks.BLACKSTONE));
+
+        // Blackstone can become gilded near gold, polished, or magma near lava
+        registerMaturation(Blocks.BLACKSTONE,
+            rule(FEATURE_GOLD, 0.1f, Blocks.GILDED_BLACKSTONE),
+            rule(FEATURE_POLISHED, 0.2f, Blocks.POLISHED_BLACKSTONE),
+            lavaRule(1, 6, 0.1f, Blocks.MAGMA_BLOCK));
+        registerMaturation(Blocks.POLISHED_BLACKSTONE,
+            lavaRule(1, 6, 0.1f, Blocks.MAGMA_BLOCK));
 
         // Nether wart blocks can spawn shroomlight (rare)
-        if (block == Blocks.NETHER_WART_BLOCK || block == Blocks.WARPED_WART_BLOCK) {
-            if (neighbors.random.nextFloat() < 0.05f) {
-                return Blocks.SHROOMLIGHT.defaultBlockState();
-            }
-        }
+        registerMaturation(Blocks.NETHER_WART_BLOCK, rule(FEATURE_ANY, 0.05f, Blocks.SHROOMLIGHT));
+        registerMaturation(Blocks.WARPED_WART_BLOCK, rule(FEATURE_ANY, 0.05f, Blocks.SHROOMLIGHT));
+
+        // Magma near water grows a blackstone crust; next to lava it melts (helps puddles connect)
+        registerMaturation(Blocks.MAGMA_BLOCK,
+            rule(FEATURE_WATER, 0.3f, Blocks.BLACKSTONE),
+            lavaRule(2, 6, 0.25f, Blocks.LAVA),
+            lavaRule(1, 1, 0.12f, Blocks.LAVA));
+
+        // Lava can cool at edges
+        registerMaturation(Blocks.LAVA,
+            rule(FEATURE_COOLING, 0.05f, Blocks.MAGMA_BLOCK));
+    }
 
-        // Crimson/Warped nylium can spread roots
-        if (block == Blocks.CRIMSON_NYLIUM) {
-            if (neighbors.hasAirAbove() && neighbors.random.nextFloat() < 0.2f) {
-                // This signals to place roots above, handled separately
-                return null;
-            }
-        }
+    private static void registerMaturation(Block block, MaturationRule... rules) {
+        MATURATION_RULES.put(block, rules);
+    }
 
-        // Magma blocks near water create blackstone crust
-        if (block == Blocks.MAGMA_BLOCK) {
-            if (neighbors.hasWater() && neighbors.random.nextFloat() < 0.3f) {
-                return Blocks.BLACKSTONE.defaultBlockState();
-            }
-        }
+    private static MaturationRule rule(int anyOf, float chance, Block result) {
+        return new MaturationRule(anyOf, 0, 6, chance, result.defaultBlockState());
+    }
 
-        // Lava source blocks can rarely solidify edges, but can also EXPAND
-        if (block == Blocks.LAVA) {
-            // Lava can cool at edges
-            if (neighbors.hasCoolingSurface() && neighbors.random.nextFloat() < 0.05f) {
-                return Blocks.MAGMA_BLOCK.defaultBlockState();
-            }
-        }
+    private static MaturationRule lavaRule(int minLava, int maxLava, float chance, Block result) {
+        return new MaturationRule(FEATURE_ANY, minLava, maxLava, chance, result.defaultBlockState());
+    }
 
-        // === LAVA EXPANSION ===
-        // Magma blocks adjacent to multiple lava sources melt faster (helps puddles connect)
-        if (block == Blocks.MAGMA_BLOCK) {
-            int lavaCount = neighbors.getLavaCount();
-            // More lava neighbors = higher chance to melt
-            if (lavaCount >= 2 && neighbors.random.nextFloat() < 0.25f) {
-                return Blocks.LAVA.defaultBlockState();
-            }
-            if (lavaCount == 1 && neighbors.random.nextFloat() < 0.12f) {
-                return Blocks.LAVA.defaultBlockState();
-            }
+    private static int computeNeighborFeatures(BlockState state) {
+        Block block = state.getBlock();
+        int features = 0;
+
+        if (block == Blocks.CRIMSON_STEM || block == Blocks.CRIMSON_FUNGUS ||
+            block == Blocks.CRIMSON_NYLIUM || block == Blocks.CRIMSON_ROOTS ||
+            block == Blocks.NETHER_WART_BLOCK) {
+            features |= FEATURE_CRIMSON;
+        }
+        if (block == Blocks.WARPED_STEM || block == Blocks.WARPED_FUNGUS ||
+            block == Blocks.WARPED_NYLIUM || block == Blocks.WARPED_ROOTS ||
+            block == Blocks.WARPED_WART_BLOCK) {
+            features |= FEATURE_WARPED;
+        }
+        if (block == Blocks.LAVA) features |= FEATURE_LAVA;
+        if (block == Blocks.MAGMA_BLOCK) features |= FEATURE_MAGMA;
+        if (block == Blocks.SOUL_SAND) features |= FEATURE_SOUL_SAND;
+        if (block == Blocks.POLISHED_BASALT || block == Blocks.POLISHED_BLACKSTONE ||
+            block == Blocks.POLISHED_BLACKSTONE_BRICKS) {
+            features |= FEATURE_POLISHED;
         }
+        if (block == Blocks.BLACKSTONE || block == Blocks.POLISHED_BLACKSTONE) features |= FEATURE_BLACKSTONE;
+        if (block == Blocks.GOLD_BLOCK || block == Blocks.NETHER_GOLD_ORE ||
+            block == Blocks.GILDED_BLACKSTONE) {
+            features |= FEATURE_GOLD;
+        }
+        if (state.isAir()) features |= FEATURE_AIR;
+        if (block == Blocks.WATER) features |= FEATURE_WATER;
+
+        return features;
+    }
+
+    /**
+     * What this state contributes to a neighbour's maturation.
+     */
+    static int neighborFeatures(BlockState state) {
+        short[] table = tables().features();
+        int id = Block.getId(state);
+        return id < table.length ? table[id] : computeNeighborFeatures(state);
+    }
 
-        // Blackstone near lava can become magma
-        if (block == Blocks.BLACKSTONE || block == Blocks.POLISHED_BLACKSTONE) {
-            if (neighbors.getLavaCount() >= 1 && neighbors.random.nextFloat() < 0.1f) {
-                return Blocks.MAGMA_BLOCK.defaultBlockState();
+    /**
+     * Attempt to mature/evolve a nether block based on its neighbors.
+     * Returns a new state if the block should evolve, null otherwise.
+     */
+    public static BlockState getMatureTransformation(BlockState currentState, NeighborContext neighbors) {
+        MaturationRule[][] table = tables().maturation();
+        int id = Block.getId(currentState);
+        MaturationRule[] rules = id < table.length ? table[id] : MATURATION_RULES.get(currentState.getBlock());
+        if (rules == null) return null;
+
+        for (MaturationRule rule : rules) {
+            if (rule.matches(neighbors.features, neighbors.lavaCount) && neighbors.random.nextFloat() < rule.chance()) {
+                return rule.result();
             }
         }
-
         return null;
     }
 
     /**
      * Context about neighboring blocks for maturation decisions.
+     * Reusable: each analyze call starts from scratch.
      */
     public static class NeighborContext {
-        public final net.minecraft.util.RandomSource random;
-        private boolean crimsonInfluence;
-        private boolean warpedInfluence;
-        private boolean lava;
+        private net.minecraft.util.RandomSource random;
+        private int features;
         private int lavaCount; // Count of adjacent lava blocks for expansion logic
-        private boolean soulSand;
-        private boolean polishedStone;
-        private boolean blackstone;
-        private boolean gold;
-        private boolean airAbove;
-        private boolean water;
-        private boolean coolingSurface;
-        private boolean magma;
         private int magmaCount;
+        private final net.minecraft.core.BlockPos.MutableBlockPos cursor = new net.minecraft.core.BlockPos.MutableBlockPos();
 
-        public NeighborContext(net.minecraft.util.RandomSource random) {
+        public void analyze(net.minecraft.world.level.Level world, net.minecraft.core.BlockPos pos, net.minecraft.util.RandomSource random) {
             this.random = random;
-        }
-
-        public void analyze(net.minecraft.world.level.Level world, net.minecraft.core.BlockPos pos) {
-            for (net.minecraft.core.Direction dir : net.minecraft.core.Direction.values()) {
-                BlockState neighbor = world.getBlockState(pos.relative(dir));
-                Block block = neighbor.getBlock();
-
-                if (block == Blocks.CRIMSON_STEM || block == Blocks.CRIMSON_FUNGUS ||
-                    block == Blocks.CRIMSON_NYLIUM || block == Blocks.CRIMSON_ROOTS ||
-                    block == Blocks.NETHER_WART_BLOCK) {
-                    crimsonInfluence = true;
-                }
-                if (block == Blocks.WARPED_STEM || block == Blocks.WARPED_FUNGUS ||
-                    block == Blocks.WARPED_NYLIUM || block == Blocks.WARPED_ROOTS ||
-                    block == Blocks.WARPED_WART_BLOCK) {
-                    warpedInfluence = true;
-                }
-                if (block == Blocks.LAVA) {
-                    lava = true;
-                    lavaCount++;
-                }
-                if (block == Blocks.MAGMA_BLOCK) {
-                    magma = true;
-                    magmaCount++;
-                }
-                if (block == Blocks.SOUL_SAND) soulSand = true;
-                if (block == Blocks.POLISHED_BASALT || block == Blocks.POLISHED_BLACKSTONE ||
-                    block == Blocks.POLISHED_BLACKSTONE_BRICKS) {
-                    polishedStone = true;
-                }
-                if (block == Blocks.BLACKSTONE || block == Blocks.POLISHED_BLACKSTONE) {
-                    blackstone = true;
-                }
-                if (block == Blocks.GOLD_BLOCK || block == Blocks.NETHER_GOLD_ORE ||
-                    block == Blocks.GILDED_BLACKSTONE) {
-                    gold = true;
-                }
-                if (neighbor.isAir() && dir == net.minecraft.core.Direction.UP) {
-                    airAbove = true;
-                }
-                if (block == Blocks.WATER) water = true;
-                if (neighbor.isAir() || block == Blocks.WATER) {
-                    coolingSurface = true;
+            features = 0;
+            lavaCount = 0;
+            magmaCount = 0;
+
+            for (Direction dir : DIRECTIONS) {
+                int neighbor = neighborFeatures(world.getBlockState(cursor.setWithOffset(pos, dir)));
+                features |= neighbor;
+                lavaCount += (neighbor & FEATURE_LAVA) != 0 ? 1 : 0;
+                magmaCount += (neighbor & FEATURE_MAGMA) != 0 ? 1 : 0;
+                if (dir == Direction.UP && (neighbor & FEATURE_AIR) != 0) {
+                    features |= FEATURE_AIR_ABOVE;
                 }
             }
         }
 
-        public boolean hasCrimsonInfluence() { return crimsonInfluence; }
-        public boolean hasWarpedInfluence() { return warpedInfluence; }
-        public boolean hasLava() { return lava; }
+        public boolean hasCrimsonInfluence() { return (features & FEATURE_CRIMSON) != 0; }
+        public boolean hasWarpedInfluence() { return (features & FEATURE_WARPED) != 0; }
+        public boolean hasLava() { return lavaCount > 0; }
         public int getLavaCount() { return lavaCount; }
-        public boolean hasMagma() { return magma; }
+        public boolean hasMagma() { return magmaCount > 0; }
         public int getMagmaCount() { return magmaCount; }
-        public boolean hasSoulSand() { return soulSand; }
-        public boolean hasPolishedStone() { return polishedStone; }
-        public boolean hasBlackstone() { return blackstone; }
-        public boolean hasGold() { return gold; }
-        public boolean hasAirAbove() { return airAbove; }
-        public boolean hasWater() { return water; }
-        public boolean hasCoolingSurface() { return coolingSurface; }
+        public boolean hasSoulSand() { return (features & FEATURE_SOUL_SAND) != 0; }
+        public boolean hasPolishedStone() { return (features & FEATURE_POLISHED) != 0; }
+        public boolean hasBlackstone() { return (features & FEATURE_BLACKSTONE) != 0; }
+        public boolean hasGold() { return (features & FEATURE_GOLD) != 0; }
+        public boolean hasAirAbove() { return (features & FEATURE_AIR_ABOVE) != 0; }
+        public boolean hasWater() { return (features & FEATURE_WATER) != 0; }
+        public boolean hasCoolingSurface() { return (features & FEATURE_COOLING) != 0; }
+    }
+
+    /**
+     * Check if a block is a nether block (already corrupted).
+     */
+    public static boolean isNetherBlock(BlockState state) {
+        return (flags(state) & FLAG_NETHER) != 0;
     }
 
     /**
      * Check if a block is a nether block (already corrupted).
+     * Prefer the BlockState overload where a state is at hand.
      */
     public static boolean isNetherBlock(Block block) {
+        return isNetherBlock(block.defaultBlockState());
+    }
+
+    private static boolean computeNetherBlock(Block block) {
         return block == Blocks.NETHERRACK ||
                 block == Blocks.SOUL_SAND ||
                 block == Blocks.SOUL_SOIL ||
@@ -0,0 +1,438 @@
+package com.festeringportal.corruption;
+
+import com.festeringportal.config.FesteringConfig;
+import com.festeringportal.data.ChunkCorruptionIndex;
+import com.festeringportal.data.FesteringPortalState;
+import it.unimi.dsi.fastutil.longs.Long2BooleanMap;
+import it.unimi.dsi.fastutil.longs.Long2BooleanOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongLinkedOpenHashSet;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.chunk.PalettedContainer;
+import net.minecraft.world.level.levelgen.Heightmap;
+
+/**
+ * Per-chunk record of which blocks the spread could corrupt next.
+ *
+ * <p>When a chunk inside a portal's radius loads, its section palettes are copied
+ * on the server thread and scanned once on a worker. A set bit means the block
+ * passed the depth test and can be transformed (or is surface water the spread
+ * turns to lava: water under more water is left to the planner). Block changes refresh the affected column, so spread can trust the bits
+ * and skip every other block without reading its state.
+ *
+ * <p>The same scan counts the nether blocks already in the chunk and merges them
+ * into the {@link ChunkCorruptionIndex}. Chunks corrupted before the index existed
+ * have no entry of their own, and maturation and mob corruption go by the index,
+ * so this is how they join in. Only sections the spread could have reached are
+ * counted, from the lowest surface in the chunk down to the depth limit, so
+ * natural nether blocks deep underground don't make the chunk look corrupted.
+ *
+ * <p>Everything except the scan itself runs on the server thread; the worker only
+ * sees its own copies.
+ */
+public class CandidateIndex {
+
+    /** Chunks copied and handed to the worker per tick. */
+    private static final int SUBMITS_PER_TICK = 4;
+
+    private static final int SECTION_WORDS = 4096 / Long.SIZE;
+
+    private static final ExecutorService WORKER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Festering Portal Candidate Indexer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** Finished indexes by chunk. */
+    private static final Long2ObjectMap<ChunkCandidates> INDEXED = new Long2ObjectOpenHashMap<>();
+    /** Chunks with the worker. True once a block changed after the copy was taken. */
+    private static final Long2BooleanMap PENDING = new Long2BooleanOpenHashMap();
+    /** Chunks waiting for their palettes to be copied. */
+    private static final LongLinkedOpenHashSet QUEUED = new LongLinkedOpenHashSet();
+    /** Worker output, drained on the server thread. */
+    private static final Queue<ChunkCandidates> FINISHED = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Candidate bits for one chunk, one 4096-bit set per section.
+     * Sections without a single candidate stay null.
+     */
+    public static final class ChunkCandidates {
+        final long chunkKey;
+        final int minSectionY;
+        final long[][] sections;
+        /** Nether blocks found by the scan, shaped as an index entry; null if none. */
+        int[] netherCounts;
+
+        ChunkCandidates(long chunkKey, int minSectionY, int sectionCount) {
+            this.chunkKey = chunkKey;
+            this.minSectionY = minSectionY;
+            this.sections = new long[sectionCount][];
+        }
+
+        public boolean contains(BlockPos pos) {
+            int index = SectionPos.blockToSectionCoord(pos.getY()) - minSectionY;
+            if (index < 0 || index >= sections.length) return false;
+            long[] bits = sections[index];
+            if (bits == null) return false;
+            int bit = localIndex(pos.getX(), pos.getY(), pos.getZ());
+            return (bits[bit >>> 6] & (1L << bit)) != 0;
+        }
+
+        /** Whether any block in the section is a candidate. */
+        public boolean hasAny(int sectionY) {
+            int index = sectionY - minSectionY;
+            if (index < 0 || index >= sections.length || sections[index] == null) return false;
+            for (long word : sections[index]) {
+                if (word != 0) return true;
+            }
+            return false;
+        }
+
+        /** The section's raw bits, or null when it holds no candidate. Live: do not keep. */
+        long[] sectionBits(int sectionY) {
+            int index = sectionY - minSectionY;
+            if (index < 0 || index >= sections.length) return null;
+            return sections[index];
+        }
+
+        void set(int x, int y, int z, boolean candidate) {
+            int index = SectionPos.blockToSectionCoord(y) - minSectionY;
+            if (index < 0 || index >= sections.length) return;
+            long[] bits = sections[index];
+            int bit = localIndex(x, y, z);
+            if (candidate) {
+                if (bits == null) {
+                    bits = sections[index] = new long[SECTION_WORDS];
+                }
+                bits[bit >>> 6] |= 1L << bit;
+            } else if (bits != null) {
+                bits[bit >>> 6] &= ~(1L << bit);
+            }
+        }
+    }
+
+    private record Snapshot(
+        long chunkKey,
+        int minSectionY,
+        int maxDepth,
+        int surfaceMinSectionY,
+        int surfaceMaxSectionY,
+        PalettedContainer<BlockState>[] sections) {}
+
+    private static int localIndex(int x, int y, int z) {
+        return ((y & 15) << 8) | ((z & 15) << 4) | (x & 15);
+    }
+
+    /**
+     * Whether spread could corrupt a block in this state, leaving depth aside.
+     * Safe off the server thread: it only reads immutable state and the static tables.
+     */
+    static boolean isCandidateState(BlockState state) {
+        int flags = BlockTransformations.flags(state);
+        if ((flags & (BlockTransformations.FLAG_IMMUNE | BlockTransformations.FLAG_UPPER_HALF)) != 0) return false;
+        return (flags & (BlockTransformations.FLAG_TRANSFORMABLE | BlockTransformations.FLAG_WATER)) != 0;
+    }
+
+    /**
+     * Whether the bit is set for a block in this state, depth aside. Water only
+     * counts at the top of its column, since the spread never converts water with
+     * water above it, and water doesn't occlude, so the depth test can't exclude it.
+     */
+    private static boolean isCandidate(BlockState state, boolean waterAbove) {
+        if (waterAbove && isWater(state)) return false;
+        return isCandidateState(state);
+    }
+
+    private static boolean isWater(BlockState state) {
+        return (BlockTransformations.flags(state) & BlockTransformations.FLAG_WATER) != 0;
+    }
+
+    /** Same surface test as SpreadingAlgorithm.isWithinDepthLimit: a solid, occluding block. */
+    private static boolean occludes(BlockState state) {
+        return state.canOcclude() && !state.isAir();
+    }
+
+    /**
+     * Look up the index for the chunk holding pos. Returns null while it is not built
+     * yet, and queues the chunk so a later cycle has it.
+     */
+    public static ChunkCandidates lookup(ServerLevel world, BlockPos pos) {
+        long key = ChunkPos.asLong(SectionPos.blockToSectionCoord(pos.getX()), SectionPos.blockToSectionCoord(pos.getZ()));
+        ChunkCandidates candidates = INDEXED.get(key);
+        if (candidates == null && !PENDING.containsKey(key)) {
+            QUEUED.add(key);
+        }
+        return candidates;
+    }
+
+    /**
+     * Queue a freshly loaded chunk if it lies within any portal's radius. The copy
+     * happens on a later tick, never while the chunk is still arriving.
+     */
+    public static void onChunkLoad(ServerLevel world, LevelChunk chunk) {
+        if (world.dimension() != Level.OVERWORLD) return;
+
+        ChunkPos chunkPos = chunk.getPos();
+        FesteringPortalState state = FesteringPortalState.getServerState(world.getServer());
+        for (FesteringPortalState.FesteringPortalData portal : state.getPortals()) {
+            if (chunkWithinRadius(chunkPos, portal)) {
+                QUEUED.add(chunkPos.toLong());
+                return;
+            }
+        }
+    }
+
+    public static void onChunkUnload(ServerLevel world, LevelChunk chunk) {
+        if (world.dimension() != Level.OVERWORLD) return;
+
+        long key = chunk.getPos().toLong();
+        INDEXED.remove(key);
+        PENDING.remove(key);
+        QUEUED.remove(key);
+    }
+
+    /**
+     * Keep an indexed chunk current after a block changes. The changed block can flip
+     * its own bit, and the blocks below it within reach of the depth limit can flip
+     * theirs, so that stretch of the column is re-read.
+     */
+    public static void onBlockChanged(ServerLevel world, BlockPos pos) {
+        if (world.dimension() != Level.OVERWORLD) return;
+
+        long key = ChunkPos.asLong(SectionPos.blockToSectionCoord(pos.getX()), SectionPos.blockToSectionCoord(pos.getZ()));
+        if (PENDING.containsKey(key)) {
+            PENDING.put(key, true);
+            return;
+        }
+
+        ChunkCandidates candidates = INDEXED.get(key);
+        if (candidates == null) return;
+
+        int maxDepth = FesteringConfig.MAX_DEPTH_BELOW_SURFACE;
+        BlockPos.MutableBlockPos cursor = pos.mutable();
+
+        int run = 0;
+        boolean waterAbove = false;
+        for (int i = 0; i <= maxDepth; i++) {
+            cursor.move(Direction.UP);
+            BlockState above = world.getBlockState(cursor);
+            if (i == 0) waterAbove = isWater(above);
+            if (!occludes(above)) break;
+            run++;
+        }
+
+        cursor.set(pos);
+        int minY = world.getMinY();
+        for (int i = 0; i <= maxDepth + 1 && cursor.getY() >= minY; i++) {
+            BlockState state = world.getBlockState(cursor);
+            candidates.set(cursor.getX(), cursor.getY(), cursor.getZ(), run <= maxDepth && isCandidate(state, waterAbove));
+            run = occludes(state) ? run + 1 : 0;
+            waterAbove = isWater(state);
+            cursor.move(Direction.DOWN);
+        }
+    }
+
+    /** Publish finished scans and hand queued chunks to the worker. */
+    public static void tick(ServerLevel world) {
+        ChunkCandidates finished;
+        while ((finished = FINISHED.poll()) != null) {
+            if (!PENDING.containsKey(finished.chunkKey)) {
+                continue; // unloaded meanwhile
+            }
+            boolean stale = PENDING.remove(finished.chunkKey);
+            if (stale) {
+                QUEUED.add(finished.chunkKey);
+            } else {
+                INDEXED.put(finished.chunkKey, finished);
+                backfill(world, finished);
+            }
+        }
+
+        int submitted = 0;
+        while (submitted < SUBMITS_PER_TICK && !QUEUED.isEmpty()) {
+            long key = QUEUED.removeFirstLong();
+            if (INDEXED.containsKey(key) || PENDING.containsKey(key)) continue;
+
+            LevelChunk chunk = world.getChunkSource().getChunkNow(ChunkPos.getX(key), ChunkPos.getZ(key));
+            if (chunk == null) continue;
+
+            Snapshot snapshot = copy(key, chunk);
+            PENDING.put(key, false);
+            WORKER.execute(() -> FINISHED.add(scan(snapshot)));
+            submitted++;
+        }
+    }
+
+    private static void backfill(ServerLevel world, ChunkCandidates finished) {
+        if (finished.netherCounts == null) return;
+
+        FesteringPortalState.getServerState(world.getServer()).getChunkCorruption()
+            .backfill(finished.chunkKey, finished.netherCounts);
+    }
+
+    /**
+     * Throw away every finished index after the transformation rules change. Chunks
+     * are re-scanned with the new rules as the worker gets to them; scans in flight
+     * are marked stale and resubmitted.
+     */
+    public static void reindexAll() {
+        for (long key : INDEXED.keySet()) {
+            QUEUED.add(key);
+        }
+        INDEXED.clear();
+        for (Long2BooleanMap.Entry entry : PENDING.long2BooleanEntrySet()) {
+            entry.setValue(true);
+        }
+    }
+
+    public static void clear() {
+        INDEXED.clear();
+        PENDING.clear();
+        QUEUED.clear();
+        FINISHED.clear();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Snapshot copy(long key, LevelChunk chunk) {
+        LevelChunkSection[] sections = chunk.getSections();
+        PalettedContainer<BlockState>[] copies = new PalettedContainer[sections.length];
+        for (int i = 0; i < sections.length; i++) {
+            if (!sections[i].hasOnlyAir()) {
+                copies[i] = sections[i].getStates().copy();
+            }
+        }
+        int lowest = Integer.MAX_VALUE;
+        int highest = Integer.MIN_VALUE;
+        for (int z = 0; z < 16; z++) {
+            for (int x = 0; x < 16; x++) {
+                int height = chunk.getHeight(Heightmap.Types.MOTION_BLOCKING, x, z);
+                lowest = Math.min(lowest, height);
+                highest = Math.max(highest, height);
+            }
+        }
+        int maxDepth = FesteringConfig.MAX_DEPTH_BELOW_SURFACE;
+        return new Snapshot(key, chunk.getMinSectionY(), maxDepth,
+            SectionPos.blockToSectionCoord(lowest - 1 - maxDepth), SectionPos.blockToSectionCoord(highest - 1), copies);
+    }
+
+    /**
+     * Walk every column top-down, counting the occluding blocks directly above each
+     * block. Sections whose palette holds no candidate state are only read far
+     * enough to carry that count into the section below.
+     */
+    private static ChunkCandidates scan(Snapshot snapshot) {
+        PalettedContainer<BlockState>[] sections = snapshot.sections();
+        int maxDepth = snapshot.maxDepth();
+        ChunkCandidates candidates = new ChunkCandidates(snapshot.chunkKey(), snapshot.minSectionY(), sections.length);
+
+        candidates.netherCounts = countNether(snapshot);
+
+        boolean[] hasCandidates = new boolean[sections.length];
+        for (int i = 0; i < sections.length; i++) {
+            hasCandidates[i] = sections[i] != null && sections[i].maybeHas(CandidateIndex::isCandidateState);
+        }
+
+        int[] runs = new int[256];
+        // Whether the block above each column's cursor is water; sections without candidates hold none
+        boolean[] waterAbove = new boolean[256];
+        for (int i = sections.length - 1; i >= 0; i--) {
+            PalettedContainer<BlockState> states = sections[i];
+            if (states == null) {
+                Arrays.fill(runs, 0);
+                Arrays.fill(waterAbove, false);
+                continue;
+            }
+
+            int baseY = (snapshot.minSectionY() + i) << 4;
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) {
+                    int column = (z << 4) | x;
+                    int run = runs[column];
+
+                    if (hasCandidates[i]) {
+                        boolean water = waterAbove[column];
+                        for (int y = 15; y >= 0; y--) {
+                            BlockState state = states.get(x, y, z);
+                            if (run <= maxDepth && isCandidate(state, water)) {
+                                candidates.set(x, baseY + y, z, true);
+                            }
+                            run = occludes(state) ? Math.min(run + 1, maxDepth + 1) : 0;
+                            water = isWater(state);
+                        }
+                        waterAbove[column] = water;
+                    } else {
+                        // Only the occluders at the bottom of the column matter below
+                        waterAbove[column] = false;
+                        int bottom = 0;
+                        while (bottom < 16 && bottom <= maxDepth && occludes(states.get(x, bottom, z))) {
+                            bottom++;
+                        }
+                        run = bottom == 16 ? Math.min(run + 16, maxDepth + 1) : Math.min(bottom, maxDepth + 1);
+                    }
+
+                    runs[column] = run;
+                }
+            }
+        }
+
+        return candidates;
+    }
+
+    /**
+     * Nether blocks per chunk from the section palettes' counts, with their kinds
+     * and section range. Only the sections around the surface are counted. Null
+     * when they hold none.
+     */
+    private static int[] countNether(Snapshot snapshot) {
+        int[] counts = null;
+        PalettedContainer<BlockState>[] sections = snapshot.sections();
+        int first = Math.max(0, snapshot.surfaceMinSectionY() - snapshot.minSectionY());
+        int last = Math.min(sections.length - 1, snapshot.surfaceMaxSectionY() - snapshot.minSectionY());
+        for (int i = first; i <= last; i++) {
+            if (sections[i] == null || !sections[i].maybeHas(BlockTransformations::isNetherBlock)) continue;
+
+            int[] entry = counts == null ? new int[ChunkCorruptionIndex.FIELDS] : counts;
+            int before = entry[ChunkCorruptionIndex.TOTAL];
+            sections[i].count((state, count) -> {
+                if (!BlockTransformations.isNetherBlock(state)) return;
+                entry[ChunkCorruptionIndex.TOTAL] += count;
+                int kind = BiomeRewriter.kindOf(state.getBlock());
+                if (kind >= 0) entry[kind] += count;
+            });
+            if (entry[ChunkCorruptionIndex.TOTAL] == before) continue;
+
+            int sectionY = snapshot.minSectionY() + i;
+            if (counts == null) {
+                entry[ChunkCorruptionIndex.MIN_SECTION] = sectionY;
+                counts = entry;
+            }
+            entry[ChunkCorruptionIndex.MAX_SECTION] = sectionY;
+        }
+        return counts;
+    }
+
+    /** Whether any part of the chunk's footprint lies within the portal's radius. */
+    static boolean chunkWithinRadius(ChunkPos chunkPos, FesteringPortalState.FesteringPortalData portal) {
+        int cx = portal.center.getX();
+        int cz = portal.center.getZ();
+        int nearestX = Math.max(chunkPos.getMinBlockX(), Math.min(cx, chunkPos.getMaxBlockX()));
+        int nearestZ = Math.max(chunkPos.getMinBlockZ(), Math.min(cz, chunkPos.getMaxBlockZ()));
+        long dx = nearestX - cx;
+        long dz = nearestZ - cz;
+        return dx * dx + dz * dz <= (long) portal.maxRadius * portal.maxRadius;
+    }
+}
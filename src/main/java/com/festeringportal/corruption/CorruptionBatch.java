@@ -0,0 +1,226 @@
+package com.festeringportal.corruption;
+
+import com.festeringportal.config.FesteringConfig;
+import com.festeringportal.data.FesteringPortalState;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.material.FluidState;
+
+/**
+ * Block writes for one corruption cycle, grouped by chunk section.
+ *
+ * <p>Conversions are queued instead of written, and reads through the batch see
+ * the queued state, so the rest of the cycle behaves as if each write had already
+ * happened. {@link #commit()} then writes a section at a time. Client sync stays
+ * with vanilla: each write marks its block changed on the chunk holder, which
+ * sends one section-blocks-update packet per touched section at the end of the
+ * tick and recomputes the paths of mobs crossing the changed blocks.
+ *
+ * <p>Writes flagged {@link #QUIET} skip neighbor and shape updates. Commit then
+ * only wakes the fluids those writes actually affect, and breaks the block above a
+ * quiet write if it can no longer stay there: petals, carpets or bushes the
+ * transformation table doesn't know would otherwise float on the new ground.
+ *
+ * <p>The batch also remembers each section's biome category for the cycle, so
+ * biome-aware transformations cost one biome lookup per section, not per block,
+ * and collects the cycle's particle effects to send merged after the writes.
+ */
+public class CorruptionBatch {
+
+    /** Client sync only: no neighbor updates, no shape updates on the neighbors. */
+    public static final int QUIET = Block.UPDATE_CLIENTS | Block.UPDATE_KNOWN_SHAPE;
+
+    private record Write(BlockPos pos, BlockState state, int flags, boolean settled) {}
+
+    private final ServerLevel world;
+
+    private final FesteringPortalState state;
+
+    /** Chunks that crossed the biome rewrite threshold during the current commit. */
+    private final LongSet biomeRewrites = new LongOpenHashSet();
+
+    /** Section key to pending writes in that section, keyed by block position. */
+    private final Long2ObjectLinkedOpenHashMap<Long2ObjectLinkedOpenHashMap<Write>> sections = new Long2ObjectLinkedOpenHashMap<>();
+
+    private final ParticleBatch particles;
+
+    /** Positions written quietly during the current commit, whose supported blocks get checked. */
+    private final LongArrayList quietWrites = new LongArrayList();
+
+    /** Section key to the biome category resolved for it this cycle. */
+    private final Long2ObjectOpenHashMap<BlockTransformations.BiomeCategory> sectionBiomes = new Long2ObjectOpenHashMap<>();
+
+    public CorruptionBatch(ServerLevel world) {
+        this(world, new ParticleBatch());
+    }
+
+    public CorruptionBatch(ServerLevel world, ParticleBatch particles) {
+        this.world = world;
+        this.state = FesteringPortalState.getServerState(world.getServer());
+        this.particles = particles;
+    }
+
+    public ServerLevel getWorld() {
+        return world;
+    }
+
+    /**
+     * Particle effects to send once the batch commits.
+     */
+    public ParticleBatch particles() {
+        return particles;
+    }
+
+    /**
+     * Queue a write. A later write to the same position replaces the earlier one.
+     */
+    public void setBlock(BlockPos pos, BlockState state, int flags) {
+        sections.computeIfAbsent(SectionPos.asLong(pos), key -> new Long2ObjectLinkedOpenHashMap<>())
+            .put(pos.asLong(), new Write(pos.immutable(), state, flags, false));
+    }
+
+    /**
+     * Queue a quiet write whose fluids are already contained by the other writes in
+     * the batch, so commit schedules no fluid ticks for it.
+     */
+    public void setSettledBlock(BlockPos pos, BlockState state) {
+        sections.computeIfAbsent(SectionPos.asLong(pos), key -> new Long2ObjectLinkedOpenHashMap<>())
+            .put(pos.asLong(), new Write(pos.immutable(), state, QUIET, true));
+    }
+
+    /**
+     * The state this position will have once the batch commits.
+     */
+    public BlockState getBlockState(BlockPos pos) {
+        Long2ObjectLinkedOpenHashMap<Write> writes = sections.get(SectionPos.asLong(pos));
+        if (writes != null) {
+            Write write = writes.get(pos.asLong());
+            if (write != null) {
+                return write.state();
+            }
+        }
+        return world.getBlockState(pos);
+    }
+
+    /**
+     * The biome category of the section holding this position, read from the
+     * section's biome container the first time the section is asked about.
+     */
+    public BlockTransformations.BiomeCategory biomeCategory(BlockPos pos) {
+        if (!FesteringConfig.BIOME_AWARE_OUTPUTS) return BlockTransformations.BiomeCategory.TEMPERATE;
+        return sectionBiomes.computeIfAbsent(SectionPos.asLong(pos), this::resolveBiomeCategory);
+    }
+
+    private BlockTransformations.BiomeCategory resolveBiomeCategory(long sectionKey) {
+        LevelChunk chunk = world.getChunkSource().getChunkNow(SectionPos.x(sectionKey), SectionPos.z(sectionKey));
+        if (chunk == null) return BlockTransformations.BiomeCategory.TEMPERATE;
+
+        int index = chunk.getSectionIndexFromSectionY(SectionPos.y(sectionKey));
+        LevelChunkSection[] chunkSections = chunk.getSections();
+        if (index < 0 || index >= chunkSections.length) return BlockTransformations.BiomeCategory.TEMPERATE;
+
+        // The middle of the section's 4x4x4 biome grid stands in for all of it
+        return BlockTransformations.BiomeCategory.of(chunkSections[index].getNoiseBiome(2, 2, 2));
+    }
+
+    public boolean isEmpty() {
+        return sections.isEmpty();
+    }
+
+    /**
+     * Write everything, one section at a time. Light checks from the writes are
+     * collected and submitted once per section afterwards, and chunks the writes
+     * carried over the corruption threshold get their biomes rewritten together.
+     */
+    public void commit() {
+        LightBatch light = LightBatch.begin(world);
+        try {
+            for (Long2ObjectMap.Entry<Long2ObjectLinkedOpenHashMap<Write>> entry : sections.long2ObjectEntrySet()) {
+                commitSection(entry.getLongKey(), entry.getValue());
+            }
+            breakUnsupported();
+        } finally {
+            light.flush();
+        }
+        sections.clear();
+        sectionBiomes.clear();
+
+        if (!biomeRewrites.isEmpty()) {
+            BiomeRewriter.rewrite(world, state.getChunkCorruption(), biomeRewrites);
+            biomeRewrites.clear();
+        }
+
+        particles.flush(world);
+    }
+
+    private void commitSection(long sectionKey, Long2ObjectLinkedOpenHashMap<Write> writes) {
+        long chunkKey = ChunkPos.asLong(SectionPos.x(sectionKey), SectionPos.z(sectionKey));
+
+        for (Write write : writes.values()) {
+            BlockState previous = world.getBlockState(write.pos());
+
+            if (world.setBlock(write.pos(), write.state(), write.flags())) {
+                if (BiomeRewriter.recordConversion(state.getChunkCorruption(), chunkKey, SectionPos.y(sectionKey), previous, write.state())) {
+                    biomeRewrites.add(chunkKey);
+                }
+                if ((write.flags() & Block.UPDATE_NEIGHBORS) == 0) {
+                    quietWrites.add(write.pos().asLong());
+                    if (!write.settled()) wakeFluids(write);
+                }
+            }
+        }
+    }
+
+    /**
+     * The part of a neighbor update a quiet write still needs: the block resting on
+     * it breaks if it can't survive there any more. Run once every section is
+     * written, so the block above already holds its final state.
+     */
+    private void breakUnsupported() {
+        BlockPos.MutableBlockPos above = new BlockPos.MutableBlockPos();
+        for (int i = 0; i < quietWrites.size(); i++) {
+            above.set(quietWrites.getLong(i)).move(Direction.UP);
+            BlockState state = world.getBlockState(above);
+            if (!state.isAir() && !state.canSurvive(world, above)) {
+                world.destroyBlock(above, true);
+            }
+        }
+        quietWrites.clear();
+    }
+
+    /**
+     * Post-update for a quiet write. The written state's own fluid gets a tick, and
+     * if the block no longer blocks movement, so do the fluids beside it: they may
+     * now flow in. Nothing else around a quiet write is woken.
+     */
+    private void wakeFluids(Write write) {
+        FluidState fluid = write.state().getFluidState();
+        if (!fluid.isEmpty()) {
+            world.scheduleTick(write.pos(), fluid.getType(), fluid.getType().getTickDelay(world));
+        }
+
+        if (write.state().blocksMotion()) return;
+
+        BlockPos.MutableBlockPos neighbor = new BlockPos.MutableBlockPos();
+        for (Direction direction : Direction.values()) {
+            neighbor.setWithOffset(write.pos(), direction);
+            FluidState neighborFluid = world.getFluidState(neighbor);
+            if (!neighborFluid.isEmpty()) {
+                world.scheduleTick(neighbor.immutable(), neighborFluid.getType(), neighborFluid.getType().getTickDelay(world));
+            }
+        }
+    }
+}
@@ -28,6 +28,10 @@ public class CorruptionManager {
             return;
         }
 
+        MaturationTicker.flush(world);
+        CandidateIndex.tick(world);
+        MobCorruption.drainArrivals(world);
+
         tickCounter++;
 
         if (tickCounter % FesteringConfig.SPREAD_INTERVAL_TICKS != 0) {
@@ -35,6 +39,8 @@ public class CorruptionManager {
         }
 
         FesteringPortalState state = FesteringPortalState.getServerState(world.getServer());
+        // Corrupted ground outlives its portal, so spawning doesn't wait on one
+        NetherSpawner.tick(world, state.getChunkCorruption(), world.getRandom());
         List<FesteringPortalState.FesteringPortalData> portals = new ArrayList<>(state.getPortals());
 
         if (portals.isEmpty()) {
@@ -50,6 +56,7 @@ public class CorruptionManager {
             portalRotationIndex = 0;
         }
 
+        CorruptionBatch batch = new CorruptionBatch(world);
         int processed = 0;
         for (int i = 0; i < portals.size() && processed < maxToProcess; i++) {
             int idx = (portalRotationIndex + i) % portals.size();
@@ -66,11 +73,13 @@ public class CorruptionManager {
                 continue;
             }
 
-            SpreadingAlgorithm.spreadFromPortal(world, portal, state, currentTick);
-            SpreadingAlgorithm.corruptMobs(world, portal, world.getRandom());
+            SpreadingAlgorithm.spreadFromPortal(world, portal, state, batch, currentTick);
             processed++;
         }
 
+        batch.commit();
+        MobCorruption.tick(world, state.getChunkCorruption(), world.getRandom());
+
         portalRotationIndex = (portalRotationIndex + maxToProcess) % Math.max(1, portals.size());
 
         for (BlockPos center : portalsToRemove) {
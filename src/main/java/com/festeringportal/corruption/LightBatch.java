@@ -0,0 +1,86 @@
+package com.festeringportal.corruption;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.lighting.LevelLightEngine;
+
+/**
+ * Light checks for one batch commit, grouped by chunk section.
+ *
+ * <p>Every write that changes light properties normally queues its own task on the
+ * light engine. While a batch collects, those checks are held back instead. On
+ * flush each section submits a single task for its first position, and the rest
+ * of the section's positions are staged on the engine to be checked alongside it
+ * when that task runs.
+ */
+public class LightBatch {
+
+    /**
+     * Implemented on the light engine by mixin: positions to check together with a
+     * lead position when the lead's own check runs.
+     */
+    public interface StagingEngine {
+        void festeringportal$stageChecks(long lead, long[] extras);
+    }
+
+    private static LightBatch collecting;
+
+    private final LevelLightEngine engine;
+    private final Thread owner;
+
+    /** Section key to positions needing a light check. */
+    private final Long2ObjectLinkedOpenHashMap<LongArrayList> sections = new Long2ObjectLinkedOpenHashMap<>();
+
+    private LightBatch(LevelLightEngine engine) {
+        this.engine = engine;
+        this.owner = Thread.currentThread();
+    }
+
+    /**
+     * Start holding back light checks for this world on the calling thread.
+     */
+    public static LightBatch begin(ServerLevel world) {
+        LightBatch batch = new LightBatch(world.getChunkSource().getLightEngine());
+        collecting = batch;
+        return batch;
+    }
+
+    /**
+     * Called from the light engine's checkBlock. Returns true if the check was
+     * taken by the collecting batch and should not be queued now.
+     */
+    public static boolean capture(LevelLightEngine engine, BlockPos pos) {
+        LightBatch batch = collecting;
+        if (batch == null || batch.engine != engine || batch.owner != Thread.currentThread()) {
+            return false;
+        }
+
+        batch.sections.computeIfAbsent(SectionPos.asLong(pos), key -> new LongArrayList()).add(pos.asLong());
+        return true;
+    }
+
+    /**
+     * Stop collecting and submit one check per section.
+     */
+    public void flush() {
+        if (collecting == this) {
+            collecting = null;
+        }
+
+        for (Long2ObjectMap.Entry<LongArrayList> entry : sections.long2ObjectEntrySet()) {
+            LongArrayList positions = entry.getValue();
+            long lead = positions.getLong(0);
+
+            // Stage before submitting so the extras are in place when the task runs
+            if (positions.size() > 1) {
+                ((StagingEngine) engine).festeringportal$stageChecks(lead, positions.subList(1, positions.size()).toLongArray());
+            }
+            engine.checkBlock(BlockPos.of(lead));
+        }
+        sections.clear();
+    }
+}
@@ -0,0 +1,137 @@
+package com.festeringportal.corruption;
+
+import com.festeringportal.config.FesteringConfig;
+import com.festeringportal.data.ChunkCorruptionIndex;
+import com.festeringportal.data.FesteringPortalState;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+
+/**
+ * Nether block maturation, driven by the level's random-tick pass.
+ *
+ * <p>Netherrack and most other nether blocks never tick randomly, so vanilla skips
+ * the sections they fill. Right after vanilla ticks a chunk, each section the
+ * corruption has reached gets its own random picks instead. Maturation therefore
+ * covers every corrupted chunk near a player, at a rate proportional to the
+ * corrupted area and to the randomTickSpeed gamerule, with no sampling loop per
+ * portal. Changes collect in one batch
+ * per level tick, committed at the end of the tick.
+ *
+ * <p>On top of that, each spread cycle draws a few blocks from the portal's ring of
+ * recent conversions, so freshly corrupted ground matures first.
+ */
+public class MaturationTicker {
+
+    // Runs on the server thread only, so one context serves every check
+    private static final BlockTransformations.NeighborContext CONTEXT = new BlockTransformations.NeighborContext();
+
+    /** The randomTickSpeed at which each section gets MATURATION_TICKS_PER_SECTION picks: vanilla's default. */
+    private static final int BASE_RANDOM_TICK_SPEED = 3;
+
+    private static CorruptionBatch pending;
+
+    /**
+     * Called after vanilla has random-ticked a chunk.
+     */
+    public static void tickChunk(ServerLevel world, LevelChunk chunk, int randomTickSpeed) {
+        if (randomTickSpeed <= 0 || FesteringConfig.MATURATION_TICKS_PER_SECTION <= 0) return;
+        if (world.dimension() != Level.OVERWORLD) return;
+
+        ChunkCorruptionIndex index = FesteringPortalState.getServerState(world.getServer()).getChunkCorruption();
+        int[] entry = index.get(chunk.getPos().toLong());
+        if (entry == null) return;
+
+        // Scaled like vanilla's own random ticks; the remainder is paid out by chance
+        int scaled = randomTickSpeed * FesteringConfig.MATURATION_TICKS_PER_SECTION;
+        RandomSource random = world.getRandom();
+
+        int minBlockX = chunk.getPos().getMinBlockX();
+        int minBlockZ = chunk.getPos().getMinBlockZ();
+        int minSection = Math.max(entry[ChunkCorruptionIndex.MIN_SECTION], chunk.getMinSectionY());
+        int maxSection = Math.min(entry[ChunkCorruptionIndex.MAX_SECTION], chunk.getMaxSectionY());
+
+        for (int sectionY = minSection; sectionY <= maxSection; sectionY++) {
+            LevelChunkSection section = chunk.getSection(chunk.getSectionIndexFromSectionY(sectionY));
+            if (section.hasOnlyAir()) continue;
+
+            int minBlockY = sectionY << 4;
+            int picks = scaled / BASE_RANDOM_TICK_SPEED
+                + (random.nextInt(BASE_RANDOM_TICK_SPEED) < scaled % BASE_RANDOM_TICK_SPEED ? 1 : 0);
+            for (int i = 0; i < picks; i++) {
+                BlockPos pos = world.getBlockRandomPos(minBlockX, minBlockY, minBlockZ, 15);
+                BlockState state = section.getBlockState(pos.getX() & 15, pos.getY() & 15, pos.getZ() & 15);
+                if (!BlockTransformations.isNetherBlock(state)) continue;
+
+                mature(batch(world), pos, random);
+            }
+        }
+    }
+
+    /**
+     * Mature blocks the portal converted recently, favouring the newest, so maturation
+     * is strongest where the corruption is fresh. Called once per spread cycle.
+     */
+    public static void matureRecent(CorruptionBatch batch, FesteringPortalState.FesteringPortalData portal, RandomSource random) {
+        ServerLevel world = batch.getWorld();
+
+        for (int i = 0; i < FesteringConfig.RECENT_MATURATION_ATTEMPTS && !portal.recentConversions.isEmpty(); i++) {
+            BlockPos pos = BlockPos.of(portal.recentConversions.sample(random));
+            if (!world.hasChunkAt(pos)) continue;
+            if (!BlockTransformations.isNetherBlock(batch.getBlockState(pos))) continue;
+
+            mature(batch, pos, random);
+        }
+    }
+
+    /**
+     * Commit the tick's maturation. Called at the end of the level tick.
+     */
+    public static void flush(ServerLevel world) {
+        if (pending != null && pending.getWorld() == world) {
+            pending.commit();
+        }
+        pending = null;
+    }
+
+    private static CorruptionBatch batch(ServerLevel world) {
+        if (pending == null || pending.getWorld() != world) {
+            pending = new CorruptionBatch(world, ParticleBatch.background());
+        }
+        return pending;
+    }
+
+    /**
+     * Attempt to mature/evolve one nether block.
+     * This creates diversity - netherrack becomes nylium, basalt becomes polished, etc.
+     */
+    private static void mature(CorruptionBatch batch, BlockPos pos, RandomSource random) {
+        ServerLevel world = batch.getWorld();
+        BlockState currentState = batch.getBlockState(pos);
+
+        CONTEXT.analyze(world, pos, random);
+        BlockState maturedState = BlockTransformations.getMatureTransformation(currentState, CONTEXT);
+        if (maturedState == null || currentState.equals(maturedState)) return;
+
+        batch.setBlock(pos, maturedState, SpreadingAlgorithm.conversionFlags(currentState));
+        batch.particles().spores(pos);
+
+        // If nylium formed, maybe spawn roots/fungus above
+        if ((maturedState.is(Blocks.CRIMSON_NYLIUM) || maturedState.is(Blocks.WARPED_NYLIUM))
+                && CONTEXT.hasAirAbove() && random.nextFloat() < 0.4f) {
+            BlockPos above = pos.above();
+            BlockState replaced = batch.getBlockState(above);
+            if (replaced.isAir()) {
+                BlockState vegetation = maturedState.is(Blocks.CRIMSON_NYLIUM)
+                    ? (random.nextFloat() < 0.7f ? Blocks.CRIMSON_ROOTS.defaultBlockState() : Blocks.CRIMSON_FUNGUS.defaultBlockState())
+                    : (random.nextFloat() < 0.7f ? Blocks.WARPED_ROOTS.defaultBlockState() : Blocks.WARPED_FUNGUS.defaultBlockState());
+                batch.setBlock(above, vegetation, SpreadingAlgorithm.conversionFlags(replaced));
+            }
+        }
+    }
+}
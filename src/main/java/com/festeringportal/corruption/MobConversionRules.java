@@ -0,0 +1,242 @@
+package com.festeringportal.corruption;
+
+import com.festeringportal.FesteringPortal;
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.resources.FileToIdConverter;
+import net.minecraft.resources.Identifier;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.packs.resources.ResourceManager;
+import net.minecraft.server.packs.resources.SimpleJsonResourceReloadListener;
+import net.minecraft.util.profiling.ProfilerFiller;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.EntitySpawnReason;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.EntityTypes;
+import net.minecraft.world.entity.Mob;
+import net.minecraft.world.entity.monster.cubemob.Slime;
+import net.minecraft.world.entity.monster.zombie.ZombieVillager;
+import net.minecraft.world.entity.npc.villager.Villager;
+import net.minecraft.world.entity.npc.villager.VillagerData;
+
+/**
+ * Which mobs corruption turns into what, from the built-in list, other mods and datapacks.
+ *
+ * <p>Datapacks put rule files under {@code data/<namespace>/festeringportal/mob_conversions/}:
+ * <pre>
+ * {
+ *   "rules": [
+ *     { "source": "minecraft:cow", "target": "minecraft:hoglin" },
+ *     { "source": "minecraft:slime", "target": "minecraft:magma_cube", "carry": ["size", "rotation", "name"] },
+ *     { "source": "minecraft:horse", "target": "minecraft:horse" }
+ *   ]
+ * }
+ * </pre>
+ * {@code carry} names what the new mob takes over from the old one: {@code size}
+ * (slimes and magma cubes), {@code villager_data} (villagers and zombie villagers),
+ * {@code rotation} and {@code name}. Without it, rotation and name are carried.
+ * A rule whose target is its own source turns that conversion off.
+ *
+ * <p>Rules are resolved into an array indexed by entity type id after every
+ * reload, so looking up a mob's conversion is one array read however many rules
+ * there are. Datapack rules beat rules registered in code, which beat the built-in list.
+ */
+public class MobConversionRules {
+
+    public enum Carry { SIZE, VILLAGER_DATA, ROTATION, NAME }
+
+    private static final List<String> DEFAULT_CARRY = List.of("rotation", "name");
+
+    public record Rule(Identifier source, Identifier target, List<String> carry) {
+        public static final Codec<Rule> CODEC = RecordCodecBuilder.create(instance ->
+            instance.group(
+                Identifier.CODEC.fieldOf("source").forGetter(Rule::source),
+                Identifier.CODEC.fieldOf("target").forGetter(Rule::target),
+                Codec.STRING.listOf().optionalFieldOf("carry", DEFAULT_CARRY).forGetter(Rule::carry)
+            ).apply(instance, Rule::new)
+        );
+    }
+
+    record RuleFile(List<Rule> rules) {
+        static final Codec<RuleFile> CODEC = Rule.CODEC.listOf().fieldOf("rules").codec().xmap(RuleFile::new, RuleFile::rules);
+    }
+
+    /**
+     * A rule resolved against the entity type registry, with its carry list as a bit mask.
+     */
+    record Resolved(EntityType<?> target, int carry) {
+
+        boolean carries(Carry what) {
+            return (carry & (1 << what.ordinal())) != 0;
+        }
+
+        /**
+         * Build the replacement for a mob, positioned where it stands, or null if
+         * the target can't be created as a mob here.
+         */
+        Mob create(ServerLevel world, Mob source) {
+            Entity created = target.create(world, EntitySpawnReason.MOB_SUMMONED);
+            if (!(created instanceof Mob replacement)) {
+                if (created != null) created.discard();
+                return null;
+            }
+
+            float yRot = carries(Carry.ROTATION) ? source.getYRot() : world.getRandom().nextFloat() * 360.0f;
+            float xRot = carries(Carry.ROTATION) ? source.getXRot() : 0.0f;
+            replacement.snapTo(source.getX(), source.getY(), source.getZ(), yRot, xRot);
+            replacement.setYHeadRot(yRot);
+            replacement.setYBodyRot(yRot);
+
+            if (carries(Carry.SIZE) && source instanceof Slime sourceSlime && replacement instanceof Slime slime) {
+                slime.setSize(sourceSlime.getSize(), false);
+            }
+            if (carries(Carry.VILLAGER_DATA)) {
+                VillagerData data = villagerData(source);
+                if (data != null) {
+                    if (replacement instanceof Villager villager) villager.setVillagerData(data);
+                    else if (replacement instanceof ZombieVillager zombieVillager) zombieVillager.setVillagerData(data);
+                }
+            }
+            if (carries(Carry.NAME) && source.hasCustomName()) {
+                replacement.setCustomName(source.getCustomName());
+                replacement.setCustomNameVisible(source.isCustomNameVisible());
+                // A named mob was worth keeping before it turned
+                replacement.setPersistenceRequired();
+            }
+            return replacement;
+        }
+
+        private static VillagerData villagerData(Mob mob) {
+            if (mob instanceof Villager villager) return villager.getVillagerData();
+            if (mob instanceof ZombieVillager zombieVillager) return zombieVillager.getVillagerData();
+            return null;
+        }
+    }
+
+    private static final List<Rule> BUILT_IN_RULES = List.of(
+        builtIn(EntityTypes.PIG, EntityTypes.ZOMBIFIED_PIGLIN, Carry.ROTATION, Carry.NAME),
+        builtIn(EntityTypes.VILLAGER, EntityTypes.ZOMBIE_VILLAGER, Carry.VILLAGER_DATA, Carry.ROTATION, Carry.NAME),
+        builtIn(EntityTypes.SLIME, EntityTypes.MAGMA_CUBE, Carry.SIZE, Carry.ROTATION, Carry.NAME),
+        builtIn(EntityTypes.HORSE, EntityTypes.SKELETON_HORSE, Carry.ROTATION, Carry.NAME)
+    );
+
+    private static final List<Rule> API_RULES = new ArrayList<>();
+    private static List<Rule> dataRules = List.of();
+
+    private static volatile Resolved[] resolved = new Resolved[0];
+
+    // ==================== API ====================
+
+    /**
+     * Register a conversion from code, typically in a mod initializer. Takes effect
+     * at the next resolve, which happens on server start and every datapack reload.
+     */
+    public static synchronized void register(EntityType<?> source, EntityType<?> target, Carry... carry) {
+        API_RULES.add(builtIn(source, target, carry));
+    }
+
+    /**
+     * Register a fully specified rule, in the same form as the datapack files.
+     */
+    public static synchronized void register(Rule rule) {
+        API_RULES.add(rule);
+    }
+
+    private static Rule builtIn(EntityType<?> source, EntityType<?> target, Carry... carry) {
+        List<String> names = new ArrayList<>();
+        for (Carry what : carry) {
+            names.add(what.name().toLowerCase(Locale.ROOT));
+        }
+        return new Rule(BuiltInRegistries.ENTITY_TYPE.getKey(source), BuiltInRegistries.ENTITY_TYPE.getKey(target), names);
+    }
+
+    // ==================== RESOLUTION ====================
+
+    /**
+     * The conversion for an entity type, or null if corruption leaves it alone.
+     */
+    static Resolved get(EntityType<?> type) {
+        Resolved[] table = resolved;
+        int id = BuiltInRegistries.ENTITY_TYPE.getId(type);
+        return id >= 0 && id < table.length ? table[id] : null;
+    }
+
+    /**
+     * Expand every rule against the entity type registry into the lookup array.
+     */
+    public static synchronized void resolve() {
+        List<Rule> ordered = new ArrayList<>();
+        // Later rules overwrite earlier ones
+        ordered.addAll(BUILT_IN_RULES);
+        ordered.addAll(API_RULES);
+        ordered.addAll(dataRules);
+
+        Resolved[] table = new Resolved[BuiltInRegistries.ENTITY_TYPE.size()];
+        int count = 0;
+        for (Rule rule : ordered) {
+            Optional<EntityType<?>> source = BuiltInRegistries.ENTITY_TYPE.getOptional(rule.source());
+            if (source.isEmpty()) {
+                // Rules for mobs from mods that aren't installed are expected
+                FesteringPortal.LOGGER.debug("Skipping mob conversion for unknown entity {}", rule.source());
+                continue;
+            }
+            Optional<EntityType<?>> target = BuiltInRegistries.ENTITY_TYPE.getOptional(rule.target());
+            if (target.isEmpty()) {
+                FesteringPortal.LOGGER.warn("Unknown target entity {} in mob conversion for {}", rule.target(), rule.source());
+                continue;
+            }
+
+            int id = BuiltInRegistries.ENTITY_TYPE.getId(source.get());
+            table[id] = source.get() == target.get() ? null : new Resolved(target.get(), carryMask(rule));
+            count++;
+        }
+
+        resolved = table;
+        FesteringPortal.LOGGER.debug("Resolved {} mob conversion rule(s)", count);
+    }
+
+    private static int carryMask(Rule rule) {
+        int mask = 0;
+        for (String name : rule.carry()) {
+            try {
+                mask |= 1 << Carry.valueOf(name.toUpperCase(Locale.ROOT)).ordinal();
+            } catch (IllegalArgumentException e) {
+                FesteringPortal.LOGGER.warn("Unknown carry {} in mob conversion for {}", name, rule.source());
+            }
+        }
+        return mask;
+    }
+
+    // ==================== DATAPACK LOADING ====================
+
+    /**
+     * Reads the rule files on every datapack (re)load.
+     */
+    public static class Loader extends SimpleJsonResourceReloadListener<RuleFile> {
+
+        public static final Identifier ID = Identifier.fromNamespaceAndPath(FesteringPortal.MOD_ID, "mob_conversions");
+
+        public Loader() {
+            super(RuleFile.CODEC, FileToIdConverter.json(FesteringPortal.MOD_ID + "/mob_conversions"));
+        }
+
+        @Override
+        protected void apply(Map<Identifier, RuleFile> files, ResourceManager resourceManager, ProfilerFiller profiler) {
+            // Sorted by file id so overlapping rules resolve the same way every time
+            List<Rule> rules = new ArrayList<>();
+            for (RuleFile file : new TreeMap<>(files).values()) {
+                rules.addAll(file.rules());
+            }
+            synchronized (MobConversionRules.class) {
+                dataRules = List.copyOf(rules);
+            }
+        }
+    }
+}
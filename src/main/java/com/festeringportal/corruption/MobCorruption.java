@@ -0,0 +1,149 @@
+package com.festeringportal.corruption;
+
+import com.festeringportal.FesteringPortal;
+import com.festeringportal.config.FesteringConfig;
+import com.festeringportal.data.ChunkCorruptionIndex;
+import com.festeringportal.data.FesteringPortalState;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.Mob;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.chunk.LevelChunk;
+
+/**
+ * Turns overworld mobs on corrupted ground into their nether counterparts.
+ *
+ * <p>One pass over the level's loaded entities per spread cycle covers every
+ * portal's zone at once. Each entity is dispatched on its type through
+ * {@link MobConversionRules}, so mobs with no nether counterpart cost one array
+ * read. The chunk corruption index filters the rest: a mob's chunk must have
+ * MOB_CHUNK_THRESHOLD conversions and its feet must lie in the section range the
+ * corruption has reached. Only mobs that pass get one read of the block they
+ * stand on, from the already loaded chunk, which must be a nether block.
+ *
+ * <p>Mobs also get one look as they arrive: loaded with their chunk, or spawned.
+ * Arrivals with a conversion rule that stand in a corrupted chunk are queued, and
+ * a few are checked again and converted each tick, so a mob that walked or
+ * spawned into corrupted ground while nobody was near turns the moment it is
+ * loaded rather than whenever a later roll finds it.
+ */
+public class MobCorruption {
+
+    /** Most arrivals waiting at once; a flood of chunk loads drops the excess. */
+    private static final int ARRIVAL_QUEUE_CAPACITY = 256;
+
+    private static final ArrayDeque<Mob> arrivals = new ArrayDeque<>();
+
+    /**
+     * Run one scan. Called once per spread cycle, after the portals have spread.
+     */
+    public static void tick(ServerLevel world, ChunkCorruptionIndex index, RandomSource random) {
+        if (!FesteringConfig.CORRUPT_MOBS) return;
+        if (FesteringConfig.MAX_MOB_CONVERSIONS_PER_CYCLE <= 0) return;
+
+        // Converting adds and removes entities, which the iteration can't survive
+        List<Mob> chosen = new ArrayList<>();
+        List<MobConversionRules.Resolved> rules = new ArrayList<>();
+        for (Entity entity : world.getAllEntities()) {
+            MobConversionRules.Resolved rule = MobConversionRules.get(entity.getType());
+            if (rule == null) continue;
+            if (!(entity instanceof Mob mob) || !mob.isAlive()) continue;
+            if (!standsOnCorruption(world, index, mob)) continue;
+            if (random.nextFloat() >= FesteringConfig.MOB_CORRUPTION_CHANCE) continue;
+
+            chosen.add(mob);
+            rules.add(rule);
+            if (chosen.size() >= FesteringConfig.MAX_MOB_CONVERSIONS_PER_CYCLE) break;
+        }
+
+        ParticleBatch particles = new ParticleBatch();
+        for (int i = 0; i < chosen.size(); i++) {
+            convert(world, chosen.get(i), rules.get(i), particles);
+        }
+        particles.flush(world);
+    }
+
+    /**
+     * Entity load hook. The type and the chunk corruption index are checked here,
+     * neither of which reads the arriving chunk, so the bounded queue holds only
+     * mobs in corrupted chunks: a login among clean farmland queues nothing. The
+     * block underfoot is read when the queue drains.
+     */
+    public static void onEntityLoad(Entity entity, ServerLevel world) {
+        if (!FesteringConfig.CORRUPT_MOBS || FesteringConfig.MOB_LOAD_CONVERSIONS_PER_TICK <= 0) return;
+        if (world.dimension() != Level.OVERWORLD) return;
+        if (!(entity instanceof Mob mob) || MobConversionRules.get(mob.getType()) == null) return;
+
+        ChunkCorruptionIndex index = FesteringPortalState.getServerState(world.getServer()).getChunkCorruption();
+        if (!inCorruptedChunk(index, mob.getOnPos())) return;
+
+        if (arrivals.size() < ARRIVAL_QUEUE_CAPACITY) {
+            arrivals.add(mob);
+        }
+    }
+
+    /**
+     * Convert up to MOB_LOAD_CONVERSIONS_PER_TICK queued arrivals that stand on
+     * corrupted ground. Arrivals that don't are dropped: they were checked once.
+     */
+    public static void drainArrivals(ServerLevel world) {
+        if (arrivals.isEmpty()) return;
+
+        ChunkCorruptionIndex index = FesteringPortalState.getServerState(world.getServer()).getChunkCorruption();
+        ParticleBatch particles = ParticleBatch.background();
+        int converted = 0;
+        while (converted < FesteringConfig.MOB_LOAD_CONVERSIONS_PER_TICK && !arrivals.isEmpty()) {
+            Mob mob = arrivals.poll();
+            if (mob.isRemoved() || !mob.isAlive() || mob.level() != world) continue;
+            if (!standsOnCorruption(world, index, mob)) continue;
+
+            MobConversionRules.Resolved rule = MobConversionRules.get(mob.getType());
+            if (rule == null) continue;
+
+            convert(world, mob, rule, particles);
+            converted++;
+        }
+        particles.flush(world);
+    }
+
+    public static void clear() {
+        arrivals.clear();
+    }
+
+    private static boolean standsOnCorruption(ServerLevel world, ChunkCorruptionIndex index, Entity entity) {
+        BlockPos ground = entity.getOnPos();
+        if (!inCorruptedChunk(index, ground)) return false;
+
+        LevelChunk chunk = world.getChunkSource().getChunkNow(
+            SectionPos.blockToSectionCoord(ground.getX()), SectionPos.blockToSectionCoord(ground.getZ()));
+        return chunk != null && BlockTransformations.isNetherBlock(chunk.getBlockState(ground));
+    }
+
+    /** The index lookup alone: enough conversions in the chunk, at this height. */
+    private static boolean inCorruptedChunk(ChunkCorruptionIndex index, BlockPos ground) {
+        int[] entry = index.get(ChunkPos.asLong(ground));
+        if (entry == null || entry[ChunkCorruptionIndex.TOTAL] < FesteringConfig.MOB_CHUNK_THRESHOLD) return false;
+
+        int sectionY = SectionPos.blockToSectionCoord(ground.getY());
+        return sectionY >= entry[ChunkCorruptionIndex.MIN_SECTION] && sectionY <= entry[ChunkCorruptionIndex.MAX_SECTION];
+    }
+
+    private static void convert(ServerLevel world, Mob source, MobConversionRules.Resolved rule, ParticleBatch particles) {
+        Mob replacement = rule.create(world, source);
+        if (replacement == null) return;
+
+        BlockPos pos = source.blockPosition();
+        source.discard();
+        world.addFreshEntity(replacement);
+        particles.corruption(pos);
+        FesteringPortal.LOGGER.debug("{} corrupted into {} at {}",
+            source.getType().getDescriptionId(), replacement.getType().getDescriptionId(), pos);
+    }
+}
@@ -0,0 +1,167 @@
+package com.festeringportal.corruption;
+
+import com.festeringportal.config.FesteringConfig;
+import com.festeringportal.data.ChunkCorruptionIndex;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.tags.FluidTags;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.Difficulty;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.EntitySpawnReason;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.EntityTypes;
+import net.minecraft.world.entity.Mob;
+import net.minecraft.world.entity.MobCategory;
+import net.minecraft.world.entity.SpawnPlacements;
+import net.minecraft.world.entity.monster.piglin.AbstractPiglin;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.NaturalSpawner;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.gamerules.GameRules;
+import net.minecraft.world.level.levelgen.Heightmap;
+
+/**
+ * Spawns nether mobs on corrupted ground: piglins and magma cubes on nether
+ * blocks, striders on lava.
+ *
+ * <p>Each spread cycle makes NETHER_SPAWN_ATTEMPTS attempts around every player.
+ * An attempt picks a chunk near the player and gives up unless the chunk is
+ * loaded, allowed to spawn, and listed in the chunk corruption index. Then it
+ * goes ahead with a chance equal to the chunk's corruption density: converted
+ * blocks over NETHER_SPAWN_FULL_DENSITY, capped at one. The index is kept up to
+ * date as batches commit, so none of this reads blocks. Only the chosen surface
+ * block is read.
+ *
+ * <p>Vanilla's global mob caps from the last natural spawn pass apply, and so do
+ * its per-player caps for the chosen chunk, so these spawns take the place of
+ * overworld ones rather than adding to them, and never crowd a single player.
+ */
+public class NetherSpawner {
+
+    /** Chunk area vanilla scales its caps by (NaturalSpawner's 17x17). */
+    private static final int CAP_CHUNK_AREA = 17 * 17;
+
+    /** Spawn chunks are picked within this many chunks of a player. */
+    private static final int CHUNK_RANGE = 7;
+
+    /** Vanilla keeps natural spawns at least 24 blocks from any player. */
+    private static final double MIN_PLAYER_DISTANCE = 24.0;
+
+    /**
+     * Implemented on the spawn state by mixin: vanilla's per-player cap check for
+     * a chunk, from the last natural spawn pass.
+     */
+    public interface LocalCaps {
+        boolean festeringportal$canSpawnLocal(MobCategory category, ChunkPos chunkPos);
+    }
+
+    /** Ground spawns, weighted by how often each entry appears. */
+    private static final EntityType<?>[] GROUND_SPAWNS = {
+        EntityTypes.PIGLIN, EntityTypes.PIGLIN, EntityTypes.PIGLIN,
+        EntityTypes.MAGMA_CUBE, EntityTypes.MAGMA_CUBE
+    };
+
+    /**
+     * Run one cycle's spawn attempts. Called once per spread cycle.
+     */
+    public static void tick(ServerLevel world, ChunkCorruptionIndex index, RandomSource random) {
+        if (!FesteringConfig.NETHER_SPAWNING || FesteringConfig.NETHER_SPAWN_ATTEMPTS <= 0) return;
+        if (!world.getGameRules().get(GameRules.SPAWN_MOBS)) return;
+
+        NaturalSpawner.SpawnState spawnState = world.getChunkSource().getLastSpawnState();
+        if (spawnState == null) return;
+
+        // Counts from the last pass, plus whatever this cycle has spawned so far
+        Object2IntMap<MobCategory> counts = new Object2IntOpenHashMap<>(spawnState.getMobCategoryCounts());
+        int spawnableChunks = spawnState.getSpawnableChunkCount();
+
+        for (ServerPlayer player : world.players()) {
+            if (player.isSpectator()) continue;
+            int playerChunkX = SectionPos.blockToSectionCoord(player.getBlockX());
+            int playerChunkZ = SectionPos.blockToSectionCoord(player.getBlockZ());
+
+            for (int attempt = 0; attempt < FesteringConfig.NETHER_SPAWN_ATTEMPTS; attempt++) {
+                int chunkX = playerChunkX + random.nextInt(CHUNK_RANGE * 2 + 1) - CHUNK_RANGE;
+                int chunkZ = playerChunkZ + random.nextInt(CHUNK_RANGE * 2 + 1) - CHUNK_RANGE;
+                if (!isEligible(world, index, chunkX, chunkZ, random)) continue;
+
+                attemptSpawn(world, spawnState, chunkX, chunkZ, counts, spawnableChunks, random);
+            }
+        }
+    }
+
+    /**
+     * The per-chunk check: loaded, inside the spawning area, corrupted, and lucky
+     * in proportion to how corrupted.
+     */
+    private static boolean isEligible(ServerLevel world, ChunkCorruptionIndex index, int chunkX, int chunkZ, RandomSource random) {
+        int[] entry = index.get(ChunkPos.asLong(chunkX, chunkZ));
+        if (entry == null || entry[ChunkCorruptionIndex.TOTAL] < FesteringConfig.MOB_CHUNK_THRESHOLD) return false;
+        if (!world.hasChunk(chunkX, chunkZ)) return false;
+        if (!world.isNaturalSpawningAllowed(new ChunkPos(chunkX, chunkZ))) return false;
+
+        float density = Math.min(1.0f, entry[ChunkCorruptionIndex.TOTAL] / (float) FesteringConfig.NETHER_SPAWN_FULL_DENSITY);
+        return random.nextFloat() < density;
+    }
+
+    private static void attemptSpawn(
+            ServerLevel world,
+            NaturalSpawner.SpawnState spawnState,
+            int chunkX,
+            int chunkZ,
+            Object2IntMap<MobCategory> counts,
+            int spawnableChunks,
+            RandomSource random) {
+
+        int x = SectionPos.sectionToBlockCoord(chunkX) + random.nextInt(16);
+        int z = SectionPos.sectionToBlockCoord(chunkZ) + random.nextInt(16);
+        BlockPos ground = new BlockPos(x, world.getHeight(Heightmap.Types.MOTION_BLOCKING, x, z) - 1, z);
+        BlockState groundState = world.getBlockState(ground);
+
+        EntityType<?> type;
+        BlockPos spawnPos;
+        if (groundState.getFluidState().is(FluidTags.LAVA)) {
+            type = EntityTypes.STRIDER;
+            spawnPos = ground;
+        } else if (BlockTransformations.isNetherBlock(groundState)) {
+            type = GROUND_SPAWNS[random.nextInt(GROUND_SPAWNS.length)];
+            spawnPos = ground.above();
+        } else {
+            return;
+        }
+
+        MobCategory category = type.getCategory();
+        if (category == MobCategory.MONSTER && world.getDifficulty() == Difficulty.PEACEFUL) return;
+        int cap = category.getMaxInstancesPerChunk() * spawnableChunks / CAP_CHUNK_AREA;
+        if (counts.getInt(category) >= cap) return;
+        if (!((LocalCaps) spawnState).festeringportal$canSpawnLocal(category, new ChunkPos(chunkX, chunkZ))) return;
+
+        if (world.getNearestPlayer(spawnPos.getX() + 0.5, spawnPos.getY(), spawnPos.getZ() + 0.5, MIN_PLAYER_DISTANCE, false) != null) return;
+        if (!SpawnPlacements.checkSpawnRules(type, world, EntitySpawnReason.NATURAL, spawnPos, random)) return;
+
+        Entity entity = type.create(world, EntitySpawnReason.NATURAL);
+        if (!(entity instanceof Mob mob)) {
+            if (entity != null) entity.discard();
+            return;
+        }
+
+        mob.snapTo(spawnPos.getX() + 0.5, spawnPos.getY(), spawnPos.getZ() + 0.5, random.nextFloat() * 360.0f, 0.0f);
+        if (!mob.checkSpawnObstruction(world)) {
+            mob.discard();
+            return;
+        }
+
+        mob.finalizeSpawn(world, world.getCurrentDifficultyAt(spawnPos), EntitySpawnReason.NATURAL, null);
+        if (mob instanceof AbstractPiglin piglin) {
+            // Corrupted ground is nether enough to keep them from zombifying
+            piglin.setImmuneToZombification(true);
+        }
+        world.addFreshEntityWithPassengers(mob);
+        counts.put(category, counts.getInt(category) + 1);
+    }
+}
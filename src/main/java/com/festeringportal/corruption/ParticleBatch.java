@@ -0,0 +1,289 @@
+package com.festeringportal.corruption;
+
+import com.festeringportal.config.FesteringConfig;
+import com.festeringportal.network.CorruptionEffectsPayload;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.particles.ParticleTypes;
+import net.minecraft.core.particles.SimpleParticleType;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.ChunkPos;
+
+/**
+ * Particle effects for one batch, merged per chunk and sent only to players close
+ * enough to see them.
+ *
+ * <p>Effects are collected instead of sent. On {@link #flush(ServerLevel)} each
+ * chunk gets one packet per effect, centred on the effect's sites in that chunk
+ * and spread over them, however many blocks converted there. Each player then gets
+ * the merged packets within PARTICLE_DISTANCE, nearest first. Corruption nobody is
+ * near sends nothing.
+ *
+ * <p>PARTICLE_PACKETS_PER_PLAYER is a budget per player per spread cycle, shared by
+ * every batch that flushes in the cycle: the spread itself, each tick's maturation
+ * and mob conversions. Once a player's budget is spent, later batches in the same
+ * cycle send them nothing. {@link #background() Background} batches, which flush
+ * every tick, may only spend a quarter of it between them, so the spread's
+ * conversions still reach nearby players at the end of the cycle.
+ *
+ * <p>Players whose client runs the companion get one {@link CorruptionEffectsPayload}
+ * per chunk instead, listing every site, and draw the effects themselves.
+ */
+public class ParticleBatch {
+
+    public enum Effect {
+        CORRUPTION_FLAME(ParticleTypes.SOUL_FIRE_FLAME, 3, 0.3, 0.02, 0.5),
+        CORRUPTION_SMOKE(ParticleTypes.SMOKE, 2, 0.2, 0.01, 0.5),
+        STEAM(ParticleTypes.CAMPFIRE_COSY_SMOKE, 5, 0.3, 0.02, 1.0),
+        SPORES(ParticleTypes.CRIMSON_SPORE, 2, 0.3, 0.01, 0.5);
+
+        private static final Effect[] VALUES = values();
+
+        public final SimpleParticleType type;
+        public final int count;
+        public final double spread;
+        public final double speed;
+        public final double yOffset;
+
+        Effect(SimpleParticleType type, int count, double spread, double speed, double yOffset) {
+            this.type = type;
+            this.count = count;
+            this.spread = spread;
+            this.speed = speed;
+            this.yOffset = yOffset;
+        }
+    }
+
+    /**
+     * Most particles one merged packet carries, however many sites it covers.
+     * Companion clients hold each effect of a payload to the same cap.
+     */
+    public static final int MAX_MERGED_COUNT = 32;
+
+    /** Share of each player's budget background batches may spend, as a divisor. */
+    private static final int BACKGROUND_SHARE = 4;
+
+    /** Packets or payloads each player has been sent in the current spread cycle. */
+    private static final Object2IntOpenHashMap<UUID> SENT_THIS_CYCLE = new Object2IntOpenHashMap<>();
+    /** The part of SENT_THIS_CYCLE sent by background batches. */
+    private static final Object2IntOpenHashMap<UUID> SENT_IN_BACKGROUND = new Object2IntOpenHashMap<>();
+    private static long budgetCycle = -1;
+
+    /**
+     * One effect's sites within one chunk: a count, a centroid and a bounding box.
+     */
+    private static final class Emission {
+        final Effect effect;
+        final LongArrayList positions = new LongArrayList();
+        int sites;
+        int count;
+        double sumX, sumY, sumZ;
+        double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE, minZ = Double.MAX_VALUE;
+        double maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE, maxZ = -Double.MAX_VALUE;
+
+        Emission(Effect effect) {
+            this.effect = effect;
+        }
+
+        void add(BlockPos pos, double x, double y, double z) {
+            positions.add(pos.asLong());
+            sites++;
+            count += effect.count;
+            sumX += x;
+            sumY += y;
+            sumZ += z;
+            minX = Math.min(minX, x);
+            minY = Math.min(minY, y);
+            minZ = Math.min(minZ, z);
+            maxX = Math.max(maxX, x);
+            maxY = Math.max(maxY, y);
+            maxZ = Math.max(maxZ, z);
+        }
+
+        double x() { return sumX / sites; }
+        double y() { return sumY / sites; }
+        double z() { return sumZ / sites; }
+
+        double distanceSq(ServerPlayer player) {
+            return player.distanceToSqr(x(), y(), z());
+        }
+
+        void send(ServerLevel world, ServerPlayer player) {
+            // Spread over the sites' box, never tighter than a single site's effect.
+            // Overriding the limiter lifts vanilla's 32-block cut, so PARTICLE_DISTANCE decides.
+            world.sendParticles(player, effect.type, true, false,
+                x(), y(), z(),
+                Math.min(count, MAX_MERGED_COUNT),
+                Math.max(effect.spread, (maxX - minX) / 2),
+                Math.max(effect.spread, (maxY - minY) / 2),
+                Math.max(effect.spread, (maxZ - minZ) / 2),
+                effect.speed);
+        }
+    }
+
+    /**
+     * One chunk's emissions, indexed by effect, and the companion payload built from them.
+     */
+    private static final class ChunkEffects {
+        final long chunk;
+        final Emission[] emissions = new Emission[Effect.VALUES.length];
+        Emission first;
+        CorruptionEffectsPayload payload;
+
+        ChunkEffects(long chunk) {
+            this.chunk = chunk;
+        }
+
+        double distanceSq(ServerPlayer player) {
+            return first.distanceSq(player);
+        }
+
+        CorruptionEffectsPayload payload() {
+            if (payload == null) {
+                long[][] sites = new long[emissions.length][];
+                for (int i = 0; i < emissions.length; i++) {
+                    sites[i] = emissions[i] == null ? new long[0] : emissions[i].positions.toLongArray();
+                }
+                payload = new CorruptionEffectsPayload(ChunkPos.getX(chunk), ChunkPos.getZ(chunk), sites);
+            }
+            return payload;
+        }
+    }
+
+    private final Long2ObjectLinkedOpenHashMap<ChunkEffects> chunks = new Long2ObjectLinkedOpenHashMap<>();
+
+    private final boolean background;
+
+    public ParticleBatch() {
+        this(false);
+    }
+
+    private ParticleBatch(boolean background) {
+        this.background = background;
+    }
+
+    /**
+     * A batch that flushes between spread cycles, such as each tick's maturation,
+     * limited to its share of the players' budgets.
+     */
+    public static ParticleBatch background() {
+        return new ParticleBatch(true);
+    }
+
+    public void add(Effect effect, BlockPos pos) {
+        ChunkEffects chunkEffects = chunks.computeIfAbsent(ChunkPos.asLong(pos), ChunkEffects::new);
+        Emission emission = chunkEffects.emissions[effect.ordinal()];
+        if (emission == null) {
+            emission = chunkEffects.emissions[effect.ordinal()] = new Emission(effect);
+            if (chunkEffects.first == null) chunkEffects.first = emission;
+        }
+        emission.add(pos, pos.getX() + 0.5, pos.getY() + effect.yOffset, pos.getZ() + 0.5);
+    }
+
+    /**
+     * Soul fire and smoke where a block was corrupted.
+     */
+    public void corruption(BlockPos pos) {
+        add(Effect.CORRUPTION_FLAME, pos);
+        add(Effect.CORRUPTION_SMOKE, pos);
+    }
+
+    /**
+     * Steam above water that turned to lava.
+     */
+    public void steam(BlockPos pos) {
+        add(Effect.STEAM, pos);
+    }
+
+    /**
+     * Subtle spores where a nether block matured.
+     */
+    public void spores(BlockPos pos) {
+        add(Effect.SPORES, pos);
+    }
+
+    /**
+     * Send the merged effects to the players near them and forget them.
+     */
+    public void flush(ServerLevel world) {
+        if (chunks.isEmpty()) return;
+
+        List<ServerPlayer> players = world.players();
+        if (players.isEmpty() || FesteringConfig.PARTICLE_PACKETS_PER_PLAYER <= 0) {
+            chunks.clear();
+            return;
+        }
+
+        List<ChunkEffects> chunkList = new ArrayList<>(chunks.values());
+        List<Emission> emissions = new ArrayList<>();
+        for (ChunkEffects chunkEffects : chunkList) {
+            for (Emission emission : chunkEffects.emissions) {
+                if (emission != null) emissions.add(emission);
+            }
+        }
+        chunks.clear();
+
+        long cycle = world.getServer().getTickCount() / Math.max(1, FesteringConfig.SPREAD_INTERVAL_TICKS);
+        if (cycle != budgetCycle) {
+            SENT_THIS_CYCLE.clear();
+            SENT_IN_BACKGROUND.clear();
+            budgetCycle = cycle;
+        }
+
+        double maxDistanceSq = (double) FesteringConfig.PARTICLE_DISTANCE * FesteringConfig.PARTICLE_DISTANCE;
+        for (ServerPlayer player : players) {
+            int budget = FesteringConfig.PARTICLE_PACKETS_PER_PLAYER - SENT_THIS_CYCLE.getInt(player.getUUID());
+            if (background) {
+                int share = FesteringConfig.PARTICLE_PACKETS_PER_PLAYER / BACKGROUND_SHARE;
+                budget = Math.min(budget, share - SENT_IN_BACKGROUND.getInt(player.getUUID()));
+            }
+            if (budget <= 0) continue;
+
+            int sent;
+            if (CorruptionEffectsPayload.canSend(player)) {
+                List<ChunkEffects> visible = nearest(chunkList, player, maxDistanceSq, budget, ChunkEffects::distanceSq);
+                for (ChunkEffects chunkEffects : visible) {
+                    CorruptionEffectsPayload.send(player, chunkEffects.payload());
+                }
+                sent = visible.size();
+            } else {
+                List<Emission> visible = nearest(emissions, player, maxDistanceSq, budget, Emission::distanceSq);
+                for (Emission emission : visible) {
+                    emission.send(world, player);
+                }
+                sent = visible.size();
+            }
+            if (sent > 0) {
+                SENT_THIS_CYCLE.addTo(player.getUUID(), sent);
+                if (background) SENT_IN_BACKGROUND.addTo(player.getUUID(), sent);
+            }
+        }
+    }
+
+    private interface Distance<T> {
+        double to(T item, ServerPlayer player);
+    }
+
+    /**
+     * The items within range of the player, nearest first, cut to what is left of
+     * the player's budget.
+     */
+    private static <T> List<T> nearest(List<T> items, ServerPlayer player, double maxDistanceSq, int budget, Distance<T> distance) {
+        List<T> visible = new ArrayList<>();
+        for (T item : items) {
+            if (distance.to(item, player) <= maxDistanceSq) visible.add(item);
+        }
+        if (visible.size() > budget) {
+            visible.sort(Comparator.comparingDouble(item -> distance.to(item, player)));
+            return visible.subList(0, budget);
+        }
+        return visible;
+    }
+}
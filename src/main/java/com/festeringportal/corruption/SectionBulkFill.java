@@ -0,0 +1,226 @@
+package com.festeringportal.corruption;
+
+import com.festeringportal.config.FesteringConfig;
+import com.festeringportal.data.FesteringPortalState;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import java.util.Set;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+
+/**
+ * Coarse filling for large corruption zones.
+ *
+ * <p>One block per attempt never finishes an 896-block radius, so once the frontier
+ * has reached every side of a chunk section that lies wholly inside the radius,
+ * the section's remaining candidates are converted in one pass. Those blocks need
+ * no distance checks and no probing: the candidate index already knows them.
+ * Block-by-block growth stays at the visible boundary, where sections are only
+ * partly inside the radius or not yet surrounded.
+ *
+ * <p>A side counts as reached when the neighbouring section has no candidates
+ * left, or when at least MIN_FACE_FRONTIER frontier entries lie on the neighbour's
+ * face against this section. A frontier that has only touched a corner of the
+ * neighbour does not count. Filled blocks on the section's own sides join the
+ * frontier, and a sample joins the recent conversions so the filled ground
+ * matures like the rest.
+ */
+public class SectionBulkFill {
+
+    private static final Direction[] HORIZONTAL = {Direction.NORTH, Direction.SOUTH, Direction.EAST, Direction.WEST};
+
+    /** Frontier entries a shared face needs before that side counts as reached: half a face's width. */
+    private static final int MIN_FACE_FRONTIER = 8;
+
+    /** One filled block in this many is pushed to the portal's recent conversions. */
+    private static final int RECENT_SAMPLE_STRIDE = 16;
+
+    public enum RadiusClass { INSIDE, PARTIAL, OUTSIDE }
+
+    /**
+     * Classify a 16x16x16 section against the portal's radius sphere.
+     * INSIDE means every block passes isWithinMaxRadius without checking.
+     */
+    public static RadiusClass classify(FesteringPortalState.FesteringPortalData portal, int sectionX, int sectionY, int sectionZ) {
+        long radiusSq = (long) portal.maxRadius * portal.maxRadius;
+
+        long near = 0;
+        long far = 0;
+        int[] mins = {SectionPos.sectionToBlockCoord(sectionX), SectionPos.sectionToBlockCoord(sectionY), SectionPos.sectionToBlockCoord(sectionZ)};
+        int[] centers = {portal.center.getX(), portal.center.getY(), portal.center.getZ()};
+
+        for (int axis = 0; axis < 3; axis++) {
+            int min = mins[axis];
+            int max = min + 15;
+            int c = centers[axis];
+
+            long nearest = c < min ? min - c : (c > max ? c - max : 0);
+            long farthest = Math.max(Math.abs(c - min), Math.abs(max - c));
+            near += nearest * nearest;
+            far += farthest * farthest;
+        }
+
+        if (far <= radiusSq) return RadiusClass.INSIDE;
+        if (near > radiusSq) return RadiusClass.OUTSIDE;
+        return RadiusClass.PARTIAL;
+    }
+
+    /**
+     * Convert up to BULK_SECTIONS_PER_CYCLE surrounded sections.
+     *
+     * @return number of blocks converted
+     */
+    public static int fill(
+            CorruptionBatch batch,
+            FesteringPortalState.FesteringPortalData portal,
+            Set<BlockPos> frontier,
+            RandomSource random) {
+
+        ServerLevel world = batch.getWorld();
+
+        LongSet frontierSections = new LongOpenHashSet();
+        // Frontier entries per section face, indexed by Direction.get3DDataValue()
+        Long2ObjectMap<int[]> faceFrontier = new Long2ObjectOpenHashMap<>();
+        for (BlockPos pos : frontier) {
+            long section = SectionPos.asLong(pos);
+            frontierSections.add(section);
+            int[] faces = faceFrontier.computeIfAbsent(section, key -> new int[6]);
+            countFace(faces, SectionPos.sectionRelative(pos.getX()), Direction.WEST, Direction.EAST);
+            countFace(faces, SectionPos.sectionRelative(pos.getY()), Direction.DOWN, Direction.UP);
+            countFace(faces, SectionPos.sectionRelative(pos.getZ()), Direction.NORTH, Direction.SOUTH);
+        }
+
+        LongSet considered = new LongOpenHashSet();
+        int sectionsFilled = 0;
+        int converted = 0;
+
+        for (long frontierSection : frontierSections) {
+            if (sectionsFilled >= FesteringConfig.BULK_SECTIONS_PER_CYCLE) break;
+
+            // The section holding frontier entries and the ones beside it can all be enclosed
+            for (int d = -1; d < HORIZONTAL.length; d++) {
+                long section = d < 0 ? frontierSection : SectionPos.offset(frontierSection, HORIZONTAL[d]);
+                if (!considered.add(section)) continue;
+
+                if (!isSurrounded(world, portal, section, faceFrontier)) continue;
+
+                converted += fillSection(batch, portal, frontier, section, random);
+                sectionsFilled++;
+                if (sectionsFilled >= FesteringConfig.BULK_SECTIONS_PER_CYCLE) break;
+            }
+        }
+
+        return converted;
+    }
+
+    private static void countFace(int[] faces, int local, Direction low, Direction high) {
+        if (local == 0) faces[low.get3DDataValue()]++;
+        else if (local == 15) faces[high.get3DDataValue()]++;
+    }
+
+    /**
+     * A section can be filled when it sits wholly inside the radius, its chunk is
+     * indexed with candidates left in it, and on every side, vertical ones included,
+     * the neighbour has nothing left to corrupt or the frontier lines the shared face.
+     */
+    private static boolean isSurrounded(
+            ServerLevel world,
+            FesteringPortalState.FesteringPortalData portal,
+            long section,
+            Long2ObjectMap<int[]> faceFrontier) {
+
+        int sx = SectionPos.x(section);
+        int sy = SectionPos.y(section);
+        int sz = SectionPos.z(section);
+
+        if (classify(portal, sx, sy, sz) != RadiusClass.INSIDE) return false;
+
+        CandidateIndex.ChunkCandidates candidates = lookup(world, sx, sz);
+        if (candidates == null || !candidates.hasAny(sy)) return false;
+
+        for (Direction direction : Direction.values()) {
+            long neighbor = SectionPos.offset(section, direction);
+            int[] faces = faceFrontier.get(neighbor);
+            if (faces != null && faces[direction.getOpposite().get3DDataValue()] >= MIN_FACE_FRONTIER) continue;
+
+            CandidateIndex.ChunkCandidates neighborCandidates =
+                lookup(world, SectionPos.x(neighbor), SectionPos.z(neighbor));
+            if (neighborCandidates == null || neighborCandidates.hasAny(SectionPos.y(neighbor))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static CandidateIndex.ChunkCandidates lookup(ServerLevel world, int sectionX, int sectionZ) {
+        if (!world.hasChunk(sectionX, sectionZ)) return null;
+        return CandidateIndex.lookup(world, new BlockPos(SectionPos.sectionToBlockCoord(sectionX), 0, SectionPos.sectionToBlockCoord(sectionZ)));
+    }
+
+    /**
+     * Convert every candidate in the section. Water is left to the spread, which
+     * knows how to contain it. Converted blocks on the section's horizontal sides
+     * become frontier, so the spread carries on from the filled edge.
+     */
+    private static int fillSection(
+            CorruptionBatch batch,
+            FesteringPortalState.FesteringPortalData portal,
+            Set<BlockPos> frontier,
+            long section,
+            RandomSource random) {
+        ServerLevel world = batch.getWorld();
+        int sx = SectionPos.x(section);
+        int sy = SectionPos.y(section);
+        int sz = SectionPos.z(section);
+
+        CandidateIndex.ChunkCandidates candidates = lookup(world, sx, sz);
+        long[] bits = candidates == null ? null : candidates.sectionBits(sy);
+        if (bits == null) return 0;
+
+        // Copy first: each conversion clears its own bit through the block-change hook on commit
+        long[] snapshot = bits.clone();
+        int baseX = SectionPos.sectionToBlockCoord(sx);
+        int baseY = SectionPos.sectionToBlockCoord(sy);
+        int baseZ = SectionPos.sectionToBlockCoord(sz);
+        BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        BlockTransformations.BiomeCategory category = batch.biomeCategory(cursor.set(baseX, baseY, baseZ));
+        int converted = 0;
+
+        for (int word = 0; word < snapshot.length; word++) {
+            long remaining = snapshot[word];
+            while (remaining != 0) {
+                int bit = (word << 6) | Long.numberOfTrailingZeros(remaining);
+                remaining &= remaining - 1;
+
+                cursor.set(baseX + (bit & 15), baseY + (bit >>> 8), baseZ + ((bit >>> 4) & 15));
+                BlockState targetState = batch.getBlockState(cursor);
+                if (targetState.is(Blocks.WATER) || BlockTransformations.isImmune(targetState)) continue;
+
+                BlockState transformedState = BlockTransformations.getTransformation(targetState, category, random);
+                if (transformedState != null && !targetState.equals(transformedState)) {
+                    BlockPos targetPos = cursor.immutable();
+                    SpreadingAlgorithm.transformBlock(batch, targetPos, targetState, transformedState);
+                    converted++;
+
+                    int localX = bit & 15;
+                    int localZ = (bit >>> 4) & 15;
+                    if (localX == 0 || localX == 15 || localZ == 0 || localZ == 15) {
+                        frontier.add(targetPos);
+                    }
+                    if (random.nextInt(RECENT_SAMPLE_STRIDE) == 0) {
+                        portal.recentConversions.push(targetPos);
+                    }
+                }
+            }
+        }
+
+        return converted;
+    }
+}
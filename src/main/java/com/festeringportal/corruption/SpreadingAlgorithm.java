@@ -6,23 +6,14 @@ import com.festeringportal.data.FesteringPortalState;
 import java.util.*;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
-import net.minecraft.core.particles.ParticleTypes;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.util.RandomSource;
-import net.minecraft.world.entity.EntitySpawnReason;
-import net.minecraft.world.entity.EntityTypes;
-import net.minecraft.world.entity.animal.equine.Horse;
-import net.minecraft.world.entity.animal.pig.Pig;
-import net.minecraft.world.entity.monster.cubemob.Slime;
-import net.minecraft.world.entity.monster.zombie.ZombieVillager;
-import net.minecraft.world.entity.npc.villager.Villager;
-import net.minecraft.world.entity.npc.villager.VillagerData;
+import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.block.state.properties.BlockStateProperties;
 import net.minecraft.world.level.block.state.properties.DoubleBlockHalf;
-import net.minecraft.world.phys.AABB;
 
 /**
  * Grass-like organic spreading algorithm for nether corruption.
@@ -42,6 +33,7 @@ public class SpreadingAlgorithm {
      * @param world The server world
      * @param portal The festering portal data
      * @param state The persistent state (for saving changes)
+     * @param batch The cycle's pending block writes, committed by the caller
      * @param currentTick The current world tick
      * @return true if corruption spread occurred
      */
@@ -49,6 +41,7 @@ public class SpreadingAlgorithm {
             ServerLevel world,
             FesteringPortalState.FesteringPortalData portal,
             FesteringPortalState state,
+            CorruptionBatch batch,
             long currentTick) {
 
         Set<BlockPos> frontier = portal.corruptionFrontier;
@@ -58,7 +51,7 @@ public class SpreadingAlgorithm {
             frontier.addAll(newFrontier);
         }
 
-        cleanupFrontier(world, portal, frontier);
+        cleanupFrontier(batch, portal, frontier);
 
         if (frontier.isEmpty()) {
             return false;
@@ -68,7 +61,9 @@ public class SpreadingAlgorithm {
         RandomSource random = world.getRandom();
 
         // Snapshot frontier once for random access
-        List<BlockPos> frontierList = new ArrayList<>(frontier);
+        List<BlockPos> frontierList = FesteringConfig.CHUNK_AFFINE_SAMPLING
+            ? focusedSources(portal, frontier, random)
+            : new ArrayList<>(frontier);
 
         for (int attempt = 0; attempt < SPREADS_PER_TICK; attempt++) {
             if (frontierList.isEmpty()) break;
@@ -91,20 +86,27 @@ public class SpreadingAlgorithm {
                     continue;
                 }
 
-                BlockState targetState = world.getBlockState(targetPos);
+                // An indexed chunk already knows which blocks are worth reading
+                CandidateIndex.ChunkCandidates candidates = CandidateIndex.lookup(world, targetPos);
+                if (candidates != null && !candidates.contains(targetPos)) {
+                    continue;
+                }
+
+                BlockState targetState = batch.getBlockState(targetPos);
 
                 if (BlockTransformations.isImmune(targetState)) {
                     continue;
                 }
 
-                if (!isWithinDepthLimit(world, targetPos)) {
+                if (candidates == null && !isWithinDepthLimit(world, targetPos)) {
                     continue;
                 }
 
                 if (targetState.is(Blocks.WATER)) {
-                    if (transformWaterToLava(world, targetPos)) {
+                    if (transformWaterToLava(batch, portal, frontier, targetPos)) {
                         frontier.add(targetPos);
-                        spawnCorruptionParticles(world, targetPos);
+                        portal.recentConversions.push(targetPos);
+                        batch.particles().corruption(targetPos);
                         anySpread = true;
                         break;
                     }
@@ -117,25 +119,41 @@ public class SpreadingAlgorithm {
                     continue;
                 }
 
-                BlockState transformedState = BlockTransformations.getTransformation(targetState, world.getRandom());
+                if (FesteringConfig.TREE_MAX_BLOCKS > 0 && TreeConverter.isTreeBlock(targetState)) {
+                    List<BlockPos> treeFrontier = TreeConverter.convert(batch, portal, targetPos, random);
+                    if (treeFrontier != null) {
+                        frontier.addAll(treeFrontier);
+                        portal.recentConversions.push(targetPos);
+                        batch.particles().corruption(targetPos);
+                        anySpread = true;
+                        break;
+                    }
+                }
+
+                BlockState transformedState = BlockTransformations.getTransformation(targetState, batch.biomeCategory(targetPos), world.getRandom());
                 if (transformedState != null && !targetState.equals(transformedState)) {
-                    transformBlock(world, targetPos, targetState, transformedState);
+                    transformBlock(batch, targetPos, targetState, transformedState);
 
                     frontier.add(targetPos);
+                    portal.recentConversions.push(targetPos);
 
-                    spawnCorruptionParticles(world, targetPos);
+                    batch.particles().corruption(targetPos);
 
                     anySpread = true;
                     break;
                 }
             }
 
-            if (shouldRemoveFromFrontier(world, portal, spreadSource)) {
+            if (shouldRemoveFromFrontier(batch, portal, spreadSource)) {
                 frontier.remove(spreadSource);
             }
         }
 
-        matureNetherBlocks(world, portal, random);
+        if (FesteringConfig.BULK_SECTION_FILL && SectionBulkFill.fill(batch, portal, frontier, random) > 0) {
+            anySpread = true;
+        }
+
+        MaturationTicker.matureRecent(batch, portal, random);
 
         if (anySpread) {
             state.updateFrontier(portal.center, frontier, currentTick);
@@ -144,6 +162,45 @@ public class SpreadingAlgorithm {
         return anySpread;
     }
 
+    /**
+     * Frontier entries in the portal's focus chunk. The focus stays on one chunk for
+     * CHUNK_AFFINE_WINDOW cycles, or until it has no frontier left, then moves to the
+     * chunk of a random frontier entry. Busier chunks are picked proportionally more.
+     */
+    private static List<BlockPos> focusedSources(
+            FesteringPortalState.FesteringPortalData portal,
+            Set<BlockPos> frontier,
+            RandomSource random) {
+
+        if (portal.focusCyclesLeft > 0) {
+            List<BlockPos> sources = sourcesInChunk(frontier, portal.focusChunk);
+            if (!sources.isEmpty()) {
+                portal.focusCyclesLeft--;
+                return sources;
+            }
+        }
+
+        int pick = random.nextInt(frontier.size());
+        Iterator<BlockPos> iterator = frontier.iterator();
+        for (int i = 0; i < pick; i++) {
+            iterator.next();
+        }
+
+        portal.focusChunk = ChunkPos.asLong(iterator.next());
+        portal.focusCyclesLeft = Math.max(0, FesteringConfig.CHUNK_AFFINE_WINDOW - 1);
+        return sourcesInChunk(frontier, portal.focusChunk);
+    }
+
+    private static List<BlockPos> sourcesInChunk(Set<BlockPos> frontier, long chunkKey) {
+        List<BlockPos> sources = new ArrayList<>();
+        for (BlockPos pos : frontier) {
+            if (ChunkPos.asLong(pos) == chunkKey) {
+                sources.add(pos);
+            }
+        }
+        return sources;
+    }
+
     /**
      * Force an immediate burst of corruption spread (triggered by entity portal exit).
      * Spreads multiple blocks at once for dramatic effect.
@@ -166,6 +223,7 @@ public class SpreadingAlgorithm {
         int attempts = 0;
         int maxAttempts = burstSize * 10;
         RandomSource random = world.getRandom();
+        CorruptionBatch batch = new CorruptionBatch(world);
         List<BlockPos> frontierList = new ArrayList<>(frontier);
         Set<BlockPos> toRemove = new HashSet<>();
 
@@ -181,17 +239,21 @@ public class SpreadingAlgorithm {
 
                 if (!portal.isWithinMaxRadius(targetPos)) continue;
                 if (!world.hasChunkAt(targetPos)) continue;
-                if (!isWithinDepthLimit(world, targetPos)) continue;
 
-                BlockState targetState = world.getBlockState(targetPos);
+                CandidateIndex.ChunkCandidates candidates = CandidateIndex.lookup(world, targetPos);
+                if (candidates != null && !candidates.contains(targetPos)) continue;
+                if (candidates == null && !isWithinDepthLimit(world, targetPos)) continue;
+
+                BlockState targetState = batch.getBlockState(targetPos);
                 if (BlockTransformations.isImmune(targetState)) continue;
 
                 // Water-to-lava handling (same as spreadFromPortal)
                 if (targetState.is(Blocks.WATER)) {
-                    if (transformWaterToLava(world, targetPos)) {
+                    if (transformWaterToLava(batch, portal, frontier, targetPos)) {
                         frontier.add(targetPos);
+                        portal.recentConversions.push(targetPos);
                         frontierList.add(targetPos);
-                        spawnCorruptionParticles(world, targetPos);
+                        batch.particles().corruption(targetPos);
                         spread++;
                         break;
                     }
@@ -204,18 +266,31 @@ public class SpreadingAlgorithm {
                     continue;
                 }
 
-                BlockState transformedState = BlockTransformations.getTransformation(targetState, random);
+                if (FesteringConfig.TREE_MAX_BLOCKS > 0 && TreeConverter.isTreeBlock(targetState)) {
+                    List<BlockPos> treeFrontier = TreeConverter.convert(batch, portal, targetPos, random);
+                    if (treeFrontier != null) {
+                        frontier.addAll(treeFrontier);
+                        portal.recentConversions.push(targetPos);
+                        frontierList.addAll(treeFrontier);
+                        batch.particles().corruption(targetPos);
+                        spread++;
+                        break;
+                    }
+                }
+
+                BlockState transformedState = BlockTransformations.getTransformation(targetState, batch.biomeCategory(targetPos), random);
                 if (transformedState != null && !targetState.equals(transformedState)) {
-                    transformBlock(world, targetPos, targetState, transformedState);
+                    transformBlock(batch, targetPos, targetState, transformedState);
                     frontier.add(targetPos);
+                    portal.recentConversions.push(targetPos);
                     frontierList.add(targetPos);
-                    spawnCorruptionParticles(world, targetPos);
+                    batch.particles().corruption(targetPos);
                     spread++;
                     break;
                 }
             }
 
-            if (shouldRemoveFromFrontier(world, portal, spreadSource)) {
+            if (shouldRemoveFromFrontier(batch, portal, spreadSource)) {
                 toRemove.add(spreadSource);
                 // Swap-remove from list: O(1) instead of O(n)
                 int last = frontierList.size() - 1;
@@ -225,6 +300,7 @@ public class SpreadingAlgorithm {
         }
 
         frontier.removeAll(toRemove);
+        batch.commit();
 
         state.updateFrontier(portal.center, frontier, world.getGameTime());
         FesteringPortal.LOGGER.debug("Burst spread {} blocks", spread);
@@ -234,103 +310,48 @@ public class SpreadingAlgorithm {
      * Transform a block, handling double-tall blocks (doors, tall plants) properly.
      * Bottom halves drive the transform for both halves; upper halves are skipped at the call site.
      */
-    private static void transformBlock(ServerLevel world, BlockPos targetPos, BlockState targetState, BlockState transformedState) {
+    static void transformBlock(CorruptionBatch batch, BlockPos targetPos, BlockState targetState, BlockState transformedState) {
         if (targetState.hasProperty(BlockStateProperties.DOUBLE_BLOCK_HALF)) {
             DoubleBlockHalf half = targetState.getValue(BlockStateProperties.DOUBLE_BLOCK_HALF);
             if (half == DoubleBlockHalf.UPPER) {
                 return;
             }
 
-            world.setBlock(targetPos, transformedState, Block.UPDATE_ALL);
+            // Both halves are written together, so neither needs to hear about the other
+            int flags = conversionFlags(targetState);
+
+            batch.setBlock(targetPos, transformedState, flags);
 
             BlockPos topPos = targetPos.above();
-            BlockState topState = world.getBlockState(topPos);
+            BlockState topState = batch.getBlockState(topPos);
 
             if (topState.hasProperty(BlockStateProperties.DOUBLE_BLOCK_HALF)
                     && topState.getValue(BlockStateProperties.DOUBLE_BLOCK_HALF) == DoubleBlockHalf.UPPER) {
                 if (transformedState.hasProperty(BlockStateProperties.DOUBLE_BLOCK_HALF)) {
                     // Door→door: set top half of new door
-                    world.setBlock(topPos,
+                    batch.setBlock(topPos,
                             transformedState.setValue(BlockStateProperties.DOUBLE_BLOCK_HALF, DoubleBlockHalf.UPPER),
-                            Block.UPDATE_ALL);
+                            flags);
                 } else {
                     // Tall plant→single block: clear the orphaned top
-                    world.setBlock(topPos, Blocks.AIR.defaultBlockState(), Block.UPDATE_ALL);
+                    batch.setBlock(topPos, Blocks.AIR.defaultBlockState(), flags);
                 }
             }
             return;
         }
 
-        world.setBlock(targetPos, transformedState, Block.UPDATE_ALL);
+        batch.setBlock(targetPos, transformedState, conversionFlags(targetState));
     }
 
     /**
-     * Attempt to mature/evolve nether blocks within the corruption zone.
-     * This creates diversity - netherrack becomes nylium, basalt becomes polished, etc.
+     * Update flags for converting this block. In quiet mode only blocks the
+     * transformation table marks as needing it get neighbor and shape updates.
      */
-    private static void matureNetherBlocks(
-            ServerLevel world,
-            FesteringPortalState.FesteringPortalData portal,
-            RandomSource random) {
-
-        int maturationAttempts = 2;
-        int searchRadius = Math.min(20, portal.corruptionFrontier.size() > 0 ? 15 : 5);
-
-        for (int i = 0; i < maturationAttempts; i++) {
-            int dx = random.nextInt(searchRadius * 2 + 1) - searchRadius;
-            int dy = random.nextInt(searchRadius * 2 + 1) - searchRadius;
-            int dz = random.nextInt(searchRadius * 2 + 1) - searchRadius;
-
-            BlockPos pos = portal.center.offset(dx, dy, dz);
-
-            if (!world.hasChunkAt(pos)) continue;
-            if (!portal.isWithinMaxRadius(pos)) continue;
-
-            BlockState currentState = world.getBlockState(pos);
-
-            if (!BlockTransformations.isNetherBlock(currentState.getBlock())) continue;
-
-            BlockTransformations.NeighborContext context =
-                new BlockTransformations.NeighborContext(random);
-            context.analyze(world, pos);
-
-            BlockState maturedState = BlockTransformations.getMatureTransformation(currentState, context);
-
-            if (maturedState != null && !currentState.equals(maturedState)) {
-                world.setBlock(pos, maturedState, Block.UPDATE_ALL);
-
-                spawnMaturationParticles(world, pos);
-
-                // If nylium formed, maybe spawn roots/fungus above
-                if ((maturedState.is(Blocks.CRIMSON_NYLIUM) || maturedState.is(Blocks.WARPED_NYLIUM))
-                        && context.hasAirAbove() && random.nextFloat() < 0.4f) {
-                    BlockPos above = pos.above();
-                    if (world.getBlockState(above).isAir()) {
-                        BlockState vegetation = maturedState.is(Blocks.CRIMSON_NYLIUM)
-                            ? (random.nextFloat() < 0.7f ? Blocks.CRIMSON_ROOTS.defaultBlockState() : Blocks.CRIMSON_FUNGUS.defaultBlockState())
-                            : (random.nextFloat() < 0.7f ? Blocks.WARPED_ROOTS.defaultBlockState() : Blocks.WARPED_FUNGUS.defaultBlockState());
-                        world.setBlock(above, vegetation, Block.UPDATE_ALL);
-                    }
-                }
-            }
+    static int conversionFlags(BlockState source) {
+        if (FesteringConfig.QUIET_CONVERSIONS && !BlockTransformations.needsFullUpdate(source)) {
+            return CorruptionBatch.QUIET;
         }
-    }
-
-    /**
-     * Spawn subtle particles for block maturation.
-     */
-    private static void spawnMaturationParticles(ServerLevel world, BlockPos pos) {
-        double x = pos.getX() + 0.5;
-        double y = pos.getY() + 0.5;
-        double z = pos.getZ() + 0.5;
-
-        world.sendParticles(
-                ParticleTypes.CRIMSON_SPORE,
-                x, y, z,
-                2,
-                0.3, 0.3, 0.3,
-                0.01
-        );
+        return Block.UPDATE_ALL;
     }
 
     /** Max frontier entries to check per cleanup pass. */
@@ -342,7 +363,7 @@ public class SpreadingAlgorithm {
      * scanning the entire frontier every tick.
      */
     private static void cleanupFrontier(
-            ServerLevel world,
+            CorruptionBatch batch,
             FesteringPortalState.FesteringPortalData portal,
             Set<BlockPos> frontier) {
 
@@ -357,7 +378,7 @@ public class SpreadingAlgorithm {
                 continue;
             }
 
-            if (shouldRemoveFromFrontier(world, portal, pos)) {
+            if (shouldRemoveFromFrontier(batch, portal, pos)) {
                 iterator.remove();
             }
         }
@@ -371,10 +392,12 @@ public class SpreadingAlgorithm {
      * - Outside the max radius
      */
     private static boolean shouldRemoveFromFrontier(
-            ServerLevel world,
+            CorruptionBatch batch,
             FesteringPortalState.FesteringPortalData portal,
             BlockPos pos) {
 
+        ServerLevel world = batch.getWorld();
+
         for (Direction direction : DIRECTIONS) {
             BlockPos neighbor = pos.relative(direction);
 
@@ -387,7 +410,15 @@ public class SpreadingAlgorithm {
                 return false;
             }
 
-            BlockState neighborState = world.getBlockState(neighbor);
+            CandidateIndex.ChunkCandidates candidates = CandidateIndex.lookup(world, neighbor);
+            if (candidates != null) {
+                if (candidates.contains(neighbor)) {
+                    return false;
+                }
+                continue;
+            }
+
+            BlockState neighborState = batch.getBlockState(neighbor);
 
             if (!BlockTransformations.isImmune(neighborState) &&
                     BlockTransformations.canTransform(neighborState)) {
@@ -402,40 +433,44 @@ public class SpreadingAlgorithm {
      * Transform water into a contained lava pool.
      * Creates a minimal lava pocket - just floor, 4 cardinal walls, and lava center.
      * Only works on surface water (water with air above).
+     * Whole surface bodies up to the size cap are converted at once by the planner.
      */
-    private static boolean transformWaterToLava(ServerLevel world, BlockPos waterPos) {
+    private static boolean transformWaterToLava(
+            CorruptionBatch batch,
+            FesteringPortalState.FesteringPortalData portal,
+            Set<BlockPos> frontier,
+            BlockPos waterPos) {
         if (!FesteringConfig.TRANSFORM_WATER_TO_LAVA) return false;
 
+        if (FesteringConfig.WATER_BODY_MAX_SIZE > 0 && WaterBodyPlanner.convert(batch, portal, frontier, waterPos)) {
+            return true;
+        }
+
+        ServerLevel world = batch.getWorld();
         RandomSource random = world.getRandom();
 
-        BlockState above = world.getBlockState(waterPos.above());
+        BlockState above = batch.getBlockState(waterPos.above());
         if (above.is(Blocks.WATER)) {
             return false;
         }
 
         BlockPos floorPos = waterPos.below();
-        BlockState floorState = world.getBlockState(floorPos);
+        BlockState floorState = batch.getBlockState(floorPos);
         if (floorState.is(Blocks.WATER) || !floorState.isRedstoneConductor(world, floorPos)) {
-            world.setBlock(floorPos, getRandomWallBlock(random).defaultBlockState(), Block.UPDATE_ALL);
+            batch.setBlock(floorPos, getRandomWallBlock(random).defaultBlockState(), Block.UPDATE_ALL);
         }
 
         for (Direction dir : new Direction[]{Direction.NORTH, Direction.SOUTH, Direction.EAST, Direction.WEST}) {
             BlockPos wallPos = waterPos.relative(dir);
-            BlockState wallState = world.getBlockState(wallPos);
+            BlockState wallState = batch.getBlockState(wallPos);
             if (wallState.is(Blocks.WATER) || wallState.isAir()) {
-                world.setBlock(wallPos, getRandomWallBlock(random).defaultBlockState(), Block.UPDATE_ALL);
+                batch.setBlock(wallPos, getRandomWallBlock(random).defaultBlockState(), Block.UPDATE_ALL);
             }
         }
 
-        world.setBlock(waterPos, Blocks.LAVA.defaultBlockState(), Block.UPDATE_ALL);
-        spawnCorruptionParticles(world, waterPos);
-
-        // Steam effect
-        world.sendParticles(
-                ParticleTypes.CAMPFIRE_COSY_SMOKE,
-                waterPos.getX() + 0.5, waterPos.getY() + 1, waterPos.getZ() + 0.5,
-                5, 0.3, 0.3, 0.3, 0.02
-        );
+        batch.setBlock(waterPos, Blocks.LAVA.defaultBlockState(), Block.UPDATE_ALL);
+        batch.particles().corruption(waterPos);
+        batch.particles().steam(waterPos);
 
         return true;
     }
@@ -443,7 +478,7 @@ public class SpreadingAlgorithm {
     /**
      * Get a random wall block for lava pool containment.
      */
-    private static Block getRandomWallBlock(RandomSource random) {
+    static Block getRandomWallBlock(RandomSource random) {
         float roll = random.nextFloat();
         if (roll < 0.4f) {
             return Blocks.BLACKSTONE;
@@ -454,31 +489,6 @@ public class SpreadingAlgorithm {
         }
     }
 
-    /**
-     * Spawn particles at the corruption site for visual feedback.
-     */
-    private static void spawnCorruptionParticles(ServerLevel world, BlockPos pos) {
-        double x = pos.getX() + 0.5;
-        double y = pos.getY() + 0.5;
-        double z = pos.getZ() + 0.5;
-
-        world.sendParticles(
-                ParticleTypes.SOUL_FIRE_FLAME,
-                x, y, z,
-                3, // count
-                0.3, 0.3, 0.3, // spread
-                0.02 // speed
-        );
-
-        world.sendParticles(
-                ParticleTypes.SMOKE,
-                x, y, z,
-                2,
-                0.2, 0.2, 0.2,
-                0.01
-        );
-    }
-
     /**
      * Initialize the frontier by finding the actual corruption edge.
      * Uses BFS to search outward from portal center and find corrupted blocks with uncorrupted neighbors.
@@ -505,7 +515,7 @@ public class SpreadingAlgorithm {
 
             BlockState state = world.getBlockState(current);
 
-            if (BlockTransformations.isNetherBlock(state.getBlock()) || state.is(Blocks.NETHER_PORTAL) || state.is(Blocks.CRYING_OBSIDIAN) || state.is(Blocks.OBSIDIAN)) {
+            if (BlockTransformations.isNetherBlock(state) || state.is(Blocks.NETHER_PORTAL) || state.is(Blocks.CRYING_OBSIDIAN) || state.is(Blocks.OBSIDIAN)) {
                 if (hasTransformableNeighborWithinRadius(world, current, portalCenter, maxRadius)) {
                     frontier.add(current);
                 }
@@ -575,102 +585,4 @@ public class SpreadingAlgorithm {
         // If we searched far and found no surface, we're deep underground
         return false;
     }
-
-    /**
-     * Corrupt mobs within the corruption zone.
-     * Called periodically to transform overworld mobs into nether variants.
-     */
-    public static void corruptMobs(
-            ServerLevel world,
-            FesteringPortalState.FesteringPortalData portal,
-            RandomSource random) {
-
-        if (!FesteringConfig.CORRUPT_MOBS) return;
-
-        if (random.nextFloat() > FesteringConfig.MOB_CORRUPTION_CHANCE) return;
-
-        int searchRadius = 20;
-        AABB searchBox = new AABB(
-                portal.center.getX() - searchRadius,
-                portal.center.getY() - searchRadius,
-                portal.center.getZ() - searchRadius,
-                portal.center.getX() + searchRadius,
-                portal.center.getY() + searchRadius,
-                portal.center.getZ() + searchRadius
-        );
-
-        world.getEntitiesOfClass(Pig.class, searchBox, pig -> {
-            BlockPos pigPos = pig.blockPosition();
-            // Only corrupt if standing on corrupted ground
-            BlockState groundState = world.getBlockState(pigPos.below());
-            return BlockTransformations.isNetherBlock(groundState.getBlock()) && portal.isWithinMaxRadius(pigPos);
-        }).stream().findFirst().ifPresent(pig -> {
-            BlockPos pos = pig.blockPosition();
-            pig.discard();
-
-            var zombifiedPiglin = EntityTypes.ZOMBIFIED_PIGLIN.create(world, EntitySpawnReason.MOB_SUMMONED);
-            if (zombifiedPiglin != null) {
-                zombifiedPiglin.snapTo(pos.getX() + 0.5, pos.getY(), pos.getZ() + 0.5, pig.getYRot(), pig.getXRot());
-                world.addFreshEntity(zombifiedPiglin);
-                spawnCorruptionParticles(world, pos);
-                FesteringPortal.LOGGER.debug("Pig corrupted into Zombified Piglin at {}", pos);
-            }
-        });
-
-        world.getEntitiesOfClass(Villager.class, searchBox, villager -> {
-            BlockPos villagerPos = villager.blockPosition();
-            BlockState groundState = world.getBlockState(villagerPos.below());
-            return BlockTransformations.isNetherBlock(groundState.getBlock()) && portal.isWithinMaxRadius(villagerPos);
-        }).stream().findFirst().ifPresent(villager -> {
-            BlockPos pos = villager.blockPosition();
-            VillagerData villagerData = villager.getVillagerData();
-            villager.discard();
-
-            ZombieVillager zombieVillager = EntityTypes.ZOMBIE_VILLAGER.create(world, EntitySpawnReason.MOB_SUMMONED);
-            if (zombieVillager != null) {
-                zombieVillager.snapTo(pos.getX() + 0.5, pos.getY(), pos.getZ() + 0.5, villager.getYRot(), villager.getXRot());
-                zombieVillager.setVillagerData(villagerData);
-                world.addFreshEntity(zombieVillager);
-                spawnCorruptionParticles(world, pos);
-                FesteringPortal.LOGGER.debug("Villager corrupted into Zombie Villager at {}", pos);
-            }
-        });
-
-        world.getEntitiesOfClass(Slime.class, searchBox, slime -> {
-            BlockPos slimePos = slime.blockPosition();
-            BlockState groundState = world.getBlockState(slimePos.below());
-            return BlockTransformations.isNetherBlock(groundState.getBlock()) && portal.isWithinMaxRadius(slimePos);
-        }).stream().findFirst().ifPresent(slime -> {
-            BlockPos pos = slime.blockPosition();
-            int size = slime.getSize();
-            slime.discard();
-
-            var magmaCube = EntityTypes.MAGMA_CUBE.create(world, EntitySpawnReason.MOB_SUMMONED);
-            if (magmaCube != null) {
-                magmaCube.setSize(size, false);
-                magmaCube.snapTo(pos.getX() + 0.5, pos.getY(), pos.getZ() + 0.5, slime.getYRot(), slime.getXRot());
-                world.addFreshEntity(magmaCube);
-                spawnCorruptionParticles(world, pos);
-                FesteringPortal.LOGGER.debug("Slime corrupted into Magma Cube at {}", pos);
-            }
-        });
-
-        world.getEntitiesOfClass(Horse.class, searchBox, horse -> {
-            BlockPos horsePos = horse.blockPosition();
-            BlockState groundState = world.getBlockState(horsePos.below());
-            return BlockTransformations.isNetherBlock(groundState.getBlock()) && portal.isWithinMaxRadius(horsePos);
-        }).stream().findFirst().ifPresent(horse -> {
-            BlockPos pos = horse.blockPosition();
-            horse.discard();
-
-            var skeletonHorse = EntityTypes.SKELETON_HORSE.create(world, EntitySpawnReason.MOB_SUMMONED);
-            if (skeletonHorse != null) {
-                skeletonHorse.snapTo(pos.getX() + 0.5, pos.getY(), pos.getZ() + 0.5, horse.getYRot(), horse.getXRot());
-                world.addFreshEntity(skeletonHorse);
-                spawnCorruptionParticles(world, pos);
-                FesteringPortal.LOGGER.debug("Horse corrupted into Skeleton Horse at {}", pos);
-            }
-        });
-
-    }
 }
@@ -0,0 +1,240 @@
+package com.festeringportal.corruption;
+
+import com.festeringportal.FesteringPortal;
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import net.minecraft.core.Holder;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.FileToIdConverter;
+import net.minecraft.resources.Identifier;
+import net.minecraft.server.packs.resources.ResourceManager;
+import net.minecraft.server.packs.resources.SimpleJsonResourceReloadListener;
+import net.minecraft.tags.TagKey;
+import net.minecraft.util.profiling.ProfilerFiller;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.block.state.properties.Property;
+
+/**
+ * Transformation rules from datapacks and other mods, layered over the built-in table.
+ *
+ * <p>Datapacks put rule files under {@code data/<namespace>/festeringportal/transformations/}:
+ * <pre>
+ * {
+ *   "rules": [
+ *     { "source": "#minecraft:logs", "target": "minecraft:crimson_stem", "preserve": ["axis"] },
+ *     { "source": "biomesoplenty:fir_planks", "target": "minecraft:crimson_planks" },
+ *     { "source": "#c:glass_panes", "target": "minecraft:iron_bars", "preserve": ["*"], "full_update": true }
+ *   ]
+ * }
+ * </pre>
+ * A source starting with {@code #} is a block tag. {@code preserve} names the
+ * properties copied to the output where it has a property of the same name and
+ * value, and {@code "*"} copies every such property. {@code full_update} makes the
+ * conversion notify its neighbours even in quiet mode.
+ *
+ * <p>Rules are resolved against the bound tags after every reload and then compiled
+ * into the state tables in {@link BlockTransformations}, so the per-probe cost does
+ * not grow with the number of rules. Block sources beat tag sources, and datapack
+ * rules beat rules registered in code, which beat the built-in table.
+ */
+public class TransformationRules {
+
+    public static final String ALL_PROPERTIES = "*";
+
+    public record Rule(String source, Identifier target, List<String> preserve, boolean fullUpdate) {
+        public static final Codec<Rule> CODEC = RecordCodecBuilder.create(instance ->
+            instance.group(
+                Codec.STRING.fieldOf("source").forGetter(Rule::source),
+                Identifier.CODEC.fieldOf("target").forGetter(Rule::target),
+                Codec.STRING.listOf().optionalFieldOf("preserve", List.of()).forGetter(Rule::preserve),
+                Codec.BOOL.optionalFieldOf("full_update", false).forGetter(Rule::fullUpdate)
+            ).apply(instance, Rule::new)
+        );
+
+        boolean isTag() {
+            return source.startsWith("#");
+        }
+    }
+
+    record RuleFile(List<Rule> rules) {
+        static final Codec<RuleFile> CODEC = Rule.CODEC.listOf().fieldOf("rules").codec().xmap(RuleFile::new, RuleFile::rules);
+    }
+
+    /**
+     * A rule resolved against the registries. A null preserved array means copy
+     * every property the output shares.
+     */
+    record Resolved(Block target, String[] preserved, boolean fullUpdate) {
+        BlockState apply(BlockState input) {
+            BlockState output = target.defaultBlockState();
+            for (Property<?> property : input.getProperties()) {
+                if (preserved != null && !contains(preserved, property.getName())) continue;
+
+                Property<?> outputProperty = target.getStateDefinition().getProperty(property.getName());
+                if (outputProperty != null) {
+                    output = copyValue(output, outputProperty, valueName(input, property));
+                }
+            }
+            return output;
+        }
+    }
+
+    private static final List<Rule> API_RULES = new ArrayList<>();
+    private static List<Rule> dataRules = List.of();
+
+    private static volatile Map<Block, Resolved> resolved = Map.of();
+
+    // ==================== API ====================
+
+    /**
+     * Register a rule from code, typically in a mod initializer. Takes effect at
+     * the next resolve, which happens on server start and every datapack reload.
+     *
+     * @param preserve property names to carry over, or {@link #ALL_PROPERTIES}
+     */
+    public static synchronized void register(Block source, Block target, String... preserve) {
+        API_RULES.add(new Rule(BuiltInRegistries.BLOCK.getKey(source).toString(),
+            BuiltInRegistries.BLOCK.getKey(target), List.of(preserve), false));
+    }
+
+    /**
+     * Register a rule for every block in a tag.
+     *
+     * @param preserve property names to carry over, or {@link #ALL_PROPERTIES}
+     */
+    public static synchronized void register(TagKey<Block> source, Block target, String... preserve) {
+        API_RULES.add(new Rule("#" + source.location(), BuiltInRegistries.BLOCK.getKey(target), List.of(preserve), false));
+    }
+
+    /**
+     * Register a fully specified rule, in the same form as the datapack files.
+     */
+    public static synchronized void register(Rule rule) {
+        API_RULES.add(rule);
+    }
+
+    // ==================== RESOLUTION ====================
+
+    static Resolved get(Block block) {
+        return resolved.get(block);
+    }
+
+    /**
+     * Expand every rule against the current registries and tags, then recompile
+     * the transformation tables and re-index the loaded chunks with them.
+     */
+    public static synchronized void resolve() {
+        List<Rule> ordered = new ArrayList<>();
+        // Later rules overwrite earlier ones
+        addRules(ordered, API_RULES, true);
+        addRules(ordered, dataRules, true);
+        addRules(ordered, API_RULES, false);
+        addRules(ordered, dataRules, false);
+
+        Map<Block, Resolved> map = new HashMap<>();
+        for (Rule rule : ordered) {
+            Optional<Block> target = BuiltInRegistries.BLOCK.getOptional(rule.target());
+            if (target.isEmpty()) {
+                FesteringPortal.LOGGER.warn("Unknown target block {} in transformation rule for {}", rule.target(), rule.source());
+                continue;
+            }
+
+            String[] preserved = rule.preserve().contains(ALL_PROPERTIES) ? null : rule.preserve().toArray(new String[0]);
+            Resolved resolvedRule = new Resolved(target.get(), preserved, rule.fullUpdate());
+            for (Block source : sources(rule)) {
+                map.put(source, resolvedRule);
+            }
+        }
+
+        resolved = map;
+        BlockTransformations.invalidate();
+        CandidateIndex.reindexAll();
+        if (!map.isEmpty()) {
+            FesteringPortal.LOGGER.info("Resolved {} rule(s) covering {} block(s)", ordered.size(), map.size());
+        }
+    }
+
+    private static void addRules(List<Rule> into, Collection<Rule> rules, boolean tags) {
+        for (Rule rule : rules) {
+            if (rule.isTag() == tags) into.add(rule);
+        }
+    }
+
+    private static List<Block> sources(Rule rule) {
+        List<Block> blocks = new ArrayList<>();
+        if (rule.isTag()) {
+            Identifier tagId = Identifier.tryParse(rule.source().substring(1));
+            if (tagId == null) {
+                FesteringPortal.LOGGER.warn("Invalid tag {} in transformation rule", rule.source());
+                return blocks;
+            }
+            for (Holder<Block> holder : BuiltInRegistries.BLOCK.getTagOrEmpty(TagKey.create(Registries.BLOCK, tagId))) {
+                blocks.add(holder.value());
+            }
+        } else {
+            Identifier blockId = Identifier.tryParse(rule.source());
+            Optional<Block> block = blockId == null ? Optional.empty() : BuiltInRegistries.BLOCK.getOptional(blockId);
+            if (block.isPresent()) {
+                blocks.add(block.get());
+            } else {
+                // Rules for blocks from mods that aren't installed are expected
+                FesteringPortal.LOGGER.debug("Skipping transformation rule for unknown block {}", rule.source());
+            }
+        }
+        // Nothing turns air into anything
+        blocks.remove(Blocks.AIR);
+        return blocks;
+    }
+
+    private static boolean contains(String[] names, String name) {
+        for (String candidate : names) {
+            if (candidate.equals(name)) return true;
+        }
+        return false;
+    }
+
+    private static <T extends Comparable<T>> String valueName(BlockState state, Property<T> property) {
+        return property.getName(state.getValue(property));
+    }
+
+    private static <T extends Comparable<T>> BlockState copyValue(BlockState state, Property<T> property, String valueName) {
+        return property.getValue(valueName).map(value -> state.setValue(property, value)).orElse(state);
+    }
+
+    // ==================== DATAPACK LOADING ====================
+
+    /**
+     * Reads the rule files on every datapack (re)load. Resolution waits for the
+     * tags, which are bound after reload listeners run.
+     */
+    public static class Loader extends SimpleJsonResourceReloadListener<RuleFile> {
+
+        public static final Identifier ID = Identifier.fromNamespaceAndPath(FesteringPortal.MOD_ID, "transformations");
+
+        public Loader() {
+            super(RuleFile.CODEC, FileToIdConverter.json(FesteringPortal.MOD_ID + "/transformations"));
+        }
+
+        @Override
+        protected void apply(Map<Identifier, RuleFile> files, ResourceManager resourceManager, ProfilerFiller profiler) {
+            // Sorted by file id so overlapping rules resolve the same way every time
+            List<Rule> rules = new ArrayList<>();
+            for (RuleFile file : new TreeMap<>(files).values()) {
+                rules.addAll(file.rules());
+            }
+            synchronized (TransformationRules.class) {
+                dataRules = List.copyOf(rules);
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.festeringportal.corruption;
+
+import com.festeringportal.config.FesteringConfig;
+import com.festeringportal.data.FesteringPortalState;
+import it.unimi.dsi.fastutil.longs.LongArrayFIFOQueue;
+import it.unimi.dsi.fastutil.longs.LongLinkedOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import java.util.ArrayList;
+import java.util.List;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.tags.BlockTags;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.level.block.state.BlockState;
+
+/**
+ * Converts a whole tree at once when the spread first reaches one of its logs or leaves.
+ *
+ * <p>Converting a tree block by block leaves it half-finished for many cycles, and
+ * every change makes the remaining leaves recompute their distance to a log across
+ * the canopy. Here the connected logs and leaves are found first and all converted
+ * in the same batch with quiet writes, so no shape update reaches the leaves and
+ * decay distances are never recalculated.
+ *
+ * <p>Trees over the size cap, merged canopies and mega trees, are remembered by
+ * the sections the search crossed, so later touches there go block by block
+ * without searching again.
+ */
+public class TreeConverter {
+
+    /** Remembered oversized sections per portal before the memory starts over. */
+    private static final int MAX_OVERSIZED_SECTIONS = 4096;
+
+    /**
+     * Overworld logs and leaves. Stems the corruption already placed are in the
+     * log tag too, so nether and immune states are left out: the search would
+     * otherwise run through converted trees and hit the cap sooner.
+     */
+    public static boolean isTreeBlock(BlockState state) {
+        if (!state.is(BlockTags.LOGS) && !state.is(BlockTags.LEAVES)) return false;
+        return !BlockTransformations.isNetherBlock(state) && !BlockTransformations.isImmune(state);
+    }
+
+    /**
+     * Queue the conversion of the tree containing start.
+     *
+     * @return positions to add to the frontier (the start and the tree's base logs),
+     *         or null if the tree is over TREE_MAX_BLOCKS and should go block by block
+     */
+    public static List<BlockPos> convert(
+            CorruptionBatch batch,
+            FesteringPortalState.FesteringPortalData portal,
+            BlockPos start,
+            RandomSource random) {
+
+        LongLinkedOpenHashSet tree = findTree(batch, portal, start);
+        if (tree == null) return null;
+
+        List<BlockPos> frontierAdditions = new ArrayList<>();
+        frontierAdditions.add(start);
+
+        for (long packed : tree) {
+            BlockPos pos = BlockPos.of(packed);
+            BlockState state = batch.getBlockState(pos);
+            if (BlockTransformations.isImmune(state)) continue;
+
+            BlockState transformed = BlockTransformations.getTransformation(state, batch.biomeCategory(pos), random);
+            if (transformed == null || state.equals(transformed)) continue;
+
+            batch.setBlock(pos, transformed, CorruptionBatch.QUIET);
+
+            // Base logs stand on something that isn't part of the tree: spread carries on from there
+            if (state.is(BlockTags.LOGS) && !tree.contains(BlockPos.offset(packed, 0, -1, 0))) {
+                frontierAdditions.add(pos);
+            }
+        }
+
+        return frontierAdditions;
+    }
+
+    /**
+     * Logs and leaves connected to start through any of the 26 surrounding blocks,
+     * since branches and canopies often touch only at edges or corners. Null if
+     * start lies in a section known to hold an oversized tree, or the tree grows
+     * past TREE_MAX_BLOCKS.
+     */
+    private static LongLinkedOpenHashSet findTree(
+            CorruptionBatch batch,
+            FesteringPortalState.FesteringPortalData portal,
+            BlockPos start) {
+
+        if (portal.oversizedTrees.contains(SectionPos.asLong(start))) return null;
+
+        ServerLevel world = batch.getWorld();
+        LongLinkedOpenHashSet tree = new LongLinkedOpenHashSet();
+        LongArrayFIFOQueue queue = new LongArrayFIFOQueue();
+        tree.add(start.asLong());
+        queue.enqueue(start.asLong());
+
+        BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        while (!queue.isEmpty()) {
+            long current = queue.dequeueLong();
+
+            for (int dx = -1; dx <= 1; dx++) {
+                for (int dy = -1; dy <= 1; dy++) {
+                    for (int dz = -1; dz <= 1; dz++) {
+                        if (dx == 0 && dy == 0 && dz == 0) continue;
+
+                        long neighbor = BlockPos.offset(current, dx, dy, dz);
+                        if (tree.contains(neighbor)) continue;
+
+                        cursor.set(neighbor);
+                        if (!portal.isWithinMaxRadius(cursor) || !world.hasChunkAt(cursor)) continue;
+                        if (!isTreeBlock(batch.getBlockState(cursor))) continue;
+
+                        if (tree.size() >= FesteringConfig.TREE_MAX_BLOCKS) {
+                            rememberOversized(portal, tree);
+                            return null;
+                        }
+                        tree.add(neighbor);
+                        queue.enqueue(neighbor);
+                    }
+                }
+            }
+        }
+
+        return tree;
+    }
+
+    private static void rememberOversized(FesteringPortalState.FesteringPortalData portal, LongSet tree) {
+        if (portal.oversizedTrees.size() > MAX_OVERSIZED_SECTIONS) {
+            portal.oversizedTrees.clear();
+        }
+        for (long packed : tree) {
+            portal.oversizedTrees.add(SectionPos.blockToSection(packed));
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.festeringportal.corruption;
+
+import com.festeringportal.config.FesteringConfig;
+import com.festeringportal.data.FesteringPortalState;
+import it.unimi.dsi.fastutil.longs.LongArrayFIFOQueue;
+import it.unimi.dsi.fastutil.longs.LongLinkedOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import java.util.Set;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.tags.FluidTags;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+
+/**
+ * Converts a whole surface water body to lava in one go.
+ *
+ * <p>The per-block path walls in every water block it converts, which builds walls
+ * through the middle of lakes and wakes the surrounding water each time. Here the
+ * connected surface layer is flood-filled first, the containment is worked out once
+ * for the body as a whole (floor under it, walls only on its outer edge), and the
+ * lot is written as settled: the lava is contained, so nothing needs a fluid tick.
+ * Anything on the edge holding water, kelp and waterlogged blocks included, is
+ * replaced by a wall. Where the edge lies in an unloaded chunk, the body's own
+ * block there becomes the wall instead, so planning never loads a chunk.
+ *
+ * <p>A body over the size cap is only found to be one after a full-size fill. The
+ * sections that fill crossed are remembered on the portal, and later attempts
+ * starting in them skip the fill and go block by block, so an ocean or river at
+ * the edge of the radius costs one fill rather than one per touch.
+ */
+public class WaterBodyPlanner {
+
+    private static final Direction[] HORIZONTAL = {Direction.NORTH, Direction.SOUTH, Direction.EAST, Direction.WEST};
+
+    private static final int STEAM_PUFFS = 8;
+
+    /** Remembered oversized sections per portal before the memory starts over. */
+    private static final int MAX_OVERSIZED_SECTIONS = 4096;
+
+    /**
+     * Plan and queue the conversion of the surface water body containing start.
+     * The containment walls join the frontier so spread can carry on past the lake.
+     *
+     * @return false if start is not surface water or the body is over the size cap,
+     *         in which case the caller should fall back to single blocks
+     */
+    public static boolean convert(
+            CorruptionBatch batch,
+            FesteringPortalState.FesteringPortalData portal,
+            Set<BlockPos> frontier,
+            BlockPos start) {
+
+        LongSet body = floodFill(batch, portal, start);
+        if (body == null) return false;
+
+        ServerLevel world = batch.getWorld();
+        RandomSource random = world.getRandom();
+
+        // Containment, each position once: floors under the body, walls around its edge
+        LongLinkedOpenHashSet walls = new LongLinkedOpenHashSet();
+        BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        for (long packed : body) {
+            cursor.set(packed).move(Direction.DOWN);
+            BlockState floorState = batch.getBlockState(cursor);
+            if (holdsWater(floorState) || !floorState.isRedstoneConductor(world, cursor)) {
+                walls.add(cursor.asLong());
+            }
+
+            for (Direction direction : HORIZONTAL) {
+                long neighbor = BlockPos.offset(packed, direction);
+                if (body.contains(neighbor)) continue;
+
+                if (!world.hasChunkAt(cursor.set(neighbor))) {
+                    walls.add(packed);
+                    continue;
+                }
+                BlockState neighborState = batch.getBlockState(cursor);
+                if (holdsWater(neighborState) || neighborState.isAir()) {
+                    walls.add(neighbor);
+                }
+            }
+        }
+
+        for (long packed : walls) {
+            BlockPos wallPos = BlockPos.of(packed);
+            batch.setSettledBlock(wallPos, SpreadingAlgorithm.getRandomWallBlock(random).defaultBlockState());
+            if (portal.isWithinMaxRadius(wallPos)) {
+                frontier.add(wallPos);
+            }
+        }
+
+        BlockState lava = Blocks.LAVA.defaultBlockState();
+        int steamStride = Math.max(1, body.size() / STEAM_PUFFS);
+        int index = 0;
+        for (long packed : body) {
+            if (walls.contains(packed)) continue;
+
+            BlockPos lavaPos = BlockPos.of(packed);
+            batch.setSettledBlock(lavaPos, lava);
+
+            if (index++ % steamStride == 0) {
+                batch.particles().steam(lavaPos);
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Horizontally connected water at start's height with no water above it,
+     * inside the radius and in loaded chunks. Null if start doesn't qualify, lies in
+     * a section already known to hold an oversized body, or the body grows past
+     * WATER_BODY_MAX_SIZE.
+     */
+    private static LongSet floodFill(CorruptionBatch batch, FesteringPortalState.FesteringPortalData portal, BlockPos start) {
+        if (portal.oversizedWater.contains(SectionPos.asLong(start))) return null;
+        if (!isSurfaceWater(batch, portal, start)) return null;
+
+        LongSet body = new LongOpenHashSet();
+        LongArrayFIFOQueue queue = new LongArrayFIFOQueue();
+        body.add(start.asLong());
+        queue.enqueue(start.asLong());
+
+        BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        while (!queue.isEmpty()) {
+            long current = queue.dequeueLong();
+
+            for (Direction direction : HORIZONTAL) {
+                long neighbor = BlockPos.offset(current, direction);
+                if (body.contains(neighbor)) continue;
+                if (!isSurfaceWater(batch, portal, cursor.set(neighbor))) continue;
+
+                if (body.size() >= FesteringConfig.WATER_BODY_MAX_SIZE) {
+                    rememberOversized(portal, body);
+                    return null;
+                }
+                body.add(neighbor);
+                queue.enqueue(neighbor);
+            }
+        }
+
+        return body;
+    }
+
+    private static void rememberOversized(FesteringPortalState.FesteringPortalData portal, LongSet body) {
+        if (portal.oversizedWater.size() > MAX_OVERSIZED_SECTIONS) {
+            portal.oversizedWater.clear();
+        }
+        for (long packed : body) {
+            portal.oversizedWater.add(SectionPos.blockToSection(packed));
+        }
+    }
+
+    private static boolean holdsWater(BlockState state) {
+        return state.getFluidState().is(FluidTags.WATER);
+    }
+
+    private static boolean isSurfaceWater(CorruptionBatch batch, FesteringPortalState.FesteringPortalData portal, BlockPos pos) {
+        if (!portal.isWithinMaxRadius(pos)) return false;
+        if (!batch.getWorld().hasChunkAt(pos)) return false;
+        if (!batch.getBlockState(pos).is(Blocks.WATER)) return false;
+        return !batch.getBlockState(pos.above()).is(Blocks.WATER);
+    }
+}
@@ -0,0 +1,238 @@
+package com.festeringportal.data;
+
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import net.minecraft.world.level.ChunkPos;
+
+/**
+ * How much of each chunk the corruption has converted.
+ * Entries are small int arrays indexed by the field constants below.
+ *
+ * <p>Saved in regions of 32x32 chunks, each as one {@link Region}: parallel arrays
+ * of chunk keys and counts. Every change marks its region dirty, and a save takes
+ * only the dirty regions, so an autosave writes the few regions the corruption is
+ * growing in, not the whole index.
+ */
+public class ChunkCorruptionIndex {
+
+    public static final int TOTAL = 0;
+    public static final int SOUL = 1;
+    public static final int WARPED = 2;
+    public static final int MIN_SECTION = 3;
+    public static final int MAX_SECTION = 4;
+    public static final int REWRITTEN = 5;
+    public static final int FIELDS = 6;
+
+    /** Chunks per region side, as a shift: 32, as in vanilla region files. */
+    private static final int REGION_SHIFT = 5;
+
+    private record Entry(long chunk, List<Integer> fields) {
+        static final Codec<Entry> CODEC = RecordCodecBuilder.create(instance ->
+            instance.group(
+                Codec.LONG.fieldOf("chunk").forGetter(Entry::chunk),
+                Codec.INT.listOf().fieldOf("counts").forGetter(Entry::fields)
+            ).apply(instance, Entry::new)
+        );
+    }
+
+    /** The inline layout, a compound per chunk, from saves before regions. Read for migration. */
+    public static final Codec<ChunkCorruptionIndex> CODEC = Entry.CODEC.listOf().xmap(
+        ChunkCorruptionIndex::fromEntries,
+        ChunkCorruptionIndex::toEntries
+    );
+
+    /**
+     * One region's entries, copied out for saving: chunk keys, and the fields of
+     * each chunk in turn.
+     *
+     * @param fields fields per chunk in counts; older files may have fewer
+     */
+    public record Region(long region, int fields, long[] chunks, int[] counts) {
+        public static final Codec<Region> CODEC = RecordCodecBuilder.create(instance ->
+            instance.group(
+                Codec.LONG.fieldOf("region").forGetter(Region::region),
+                Codec.INT.fieldOf("fields").forGetter(Region::fields),
+                Codec.LONG_STREAM.xmap(LongStream::toArray, Arrays::stream).fieldOf("chunks").forGetter(Region::chunks),
+                Codec.INT_STREAM.xmap(IntStream::toArray, Arrays::stream).fieldOf("counts").forGetter(Region::counts)
+            ).apply(instance, Region::new)
+        );
+    }
+
+    private final Long2ObjectMap<int[]> chunks = new Long2ObjectOpenHashMap<>();
+
+    /** Regions changed since their last save. */
+    private final LongSet dirtyRegions = new LongOpenHashSet();
+
+    public static long regionOf(long chunkKey) {
+        return ChunkPos.asLong(ChunkPos.getX(chunkKey) >> REGION_SHIFT, ChunkPos.getZ(chunkKey) >> REGION_SHIFT);
+    }
+
+    /**
+     * Record one block converted to a nether block.
+     *
+     * @param kind SOUL, WARPED, or -1 for anything else
+     * @return the chunk's updated entry
+     */
+    public int[] record(long chunkKey, int sectionY, int kind) {
+        int[] entry = chunks.get(chunkKey);
+        if (entry == null) {
+            entry = new int[FIELDS];
+            entry[MIN_SECTION] = sectionY;
+            entry[MAX_SECTION] = sectionY;
+            chunks.put(chunkKey, entry);
+        }
+
+        dirtyRegions.add(regionOf(chunkKey));
+        entry[TOTAL]++;
+        if (kind >= 0) entry[kind]++;
+        entry[MIN_SECTION] = Math.min(entry[MIN_SECTION], sectionY);
+        entry[MAX_SECTION] = Math.max(entry[MAX_SECTION], sectionY);
+        return entry;
+    }
+
+    /**
+     * Merge counts found by reading a chunk's blocks, for chunks converted before
+     * the index existed or only partly recorded in it. Counts only ever rise and the
+     * section range only widens, so a scan never undoes recorded conversions.
+     *
+     * @param scanned an entry-shaped array: TOTAL, SOUL, WARPED and the section range
+     */
+    public void backfill(long chunkKey, int[] scanned) {
+        int[] entry = chunks.get(chunkKey);
+        if (entry == null) {
+            entry = new int[FIELDS];
+            System.arraycopy(scanned, 0, entry, 0, MAX_SECTION + 1);
+            chunks.put(chunkKey, entry);
+            dirtyRegions.add(regionOf(chunkKey));
+            return;
+        }
+
+        boolean changed = false;
+        for (int field = TOTAL; field <= WARPED; field++) {
+            if (scanned[field] > entry[field]) {
+                entry[field] = scanned[field];
+                changed = true;
+            }
+        }
+        if (scanned[MIN_SECTION] < entry[MIN_SECTION]) {
+            entry[MIN_SECTION] = scanned[MIN_SECTION];
+            changed = true;
+        }
+        if (scanned[MAX_SECTION] > entry[MAX_SECTION]) {
+            entry[MAX_SECTION] = scanned[MAX_SECTION];
+            changed = true;
+        }
+        if (changed) {
+            dirtyRegions.add(regionOf(chunkKey));
+        }
+    }
+
+    /**
+     * Record that the chunk's biomes have been rewritten.
+     */
+    public void markRewritten(long chunkKey) {
+        int[] entry = chunks.get(chunkKey);
+        if (entry != null && entry[REWRITTEN] == 0) {
+            entry[REWRITTEN] = 1;
+            dirtyRegions.add(regionOf(chunkKey));
+        }
+    }
+
+    /**
+     * The chunk's entry, or null if nothing in it has been converted.
+     */
+    public int[] get(long chunkKey) {
+        return chunks.get(chunkKey);
+    }
+
+    public int getTotal(long chunkKey) {
+        int[] entry = chunks.get(chunkKey);
+        return entry == null ? 0 : entry[TOTAL];
+    }
+
+    /**
+     * Copy out every dirty region and mark them clean. Regions are found by their
+     * 1024 possible chunk keys, so this costs nothing for the regions left alone.
+     */
+    public List<Region> takeDirtyRegions() {
+        List<Region> regions = new ArrayList<>(dirtyRegions.size());
+        for (long region : dirtyRegions) {
+            int minX = ChunkPos.getX(region) << REGION_SHIFT;
+            int minZ = ChunkPos.getZ(region) << REGION_SHIFT;
+            int side = 1 << REGION_SHIFT;
+
+            LongArrayList keys = new LongArrayList();
+            IntArrayList counts = new IntArrayList();
+            for (int x = minX; x < minX + side; x++) {
+                for (int z = minZ; z < minZ + side; z++) {
+                    long chunkKey = ChunkPos.asLong(x, z);
+                    int[] entry = chunks.get(chunkKey);
+                    if (entry == null) continue;
+                    keys.add(chunkKey);
+                    counts.addElements(counts.size(), entry);
+                }
+            }
+            regions.add(new Region(region, FIELDS, keys.toLongArray(), counts.toIntArray()));
+        }
+        dirtyRegions.clear();
+        return regions;
+    }
+
+    /**
+     * Have the next save write this region again, after its write failed.
+     */
+    public void markRegionDirty(long region) {
+        dirtyRegions.add(region);
+    }
+
+    /**
+     * Merge a saved region's entries in, replacing any already held. Does not mark
+     * the region dirty.
+     */
+    public void load(Region region) {
+        int fields = region.fields();
+        if (fields <= 0 || region.counts().length != region.chunks().length * fields) {
+            throw new IllegalArgumentException("Mismatched chunk counts in corruption region " + region.region());
+        }
+        for (int i = 0; i < region.chunks().length; i++) {
+            // Tolerate regions written with fewer fields
+            int[] entry = new int[FIELDS];
+            System.arraycopy(region.counts(), i * fields, entry, 0, Math.min(FIELDS, fields));
+            chunks.put(region.chunks()[i], entry);
+        }
+    }
+
+    private static ChunkCorruptionIndex fromEntries(List<Entry> entries) {
+        ChunkCorruptionIndex index = new ChunkCorruptionIndex();
+        for (Entry entry : entries) {
+            // Tolerate entries written with fewer fields
+            int[] fields = new int[FIELDS];
+            for (int i = 0; i < Math.min(FIELDS, entry.fields().size()); i++) {
+                fields[i] = entry.fields().get(i);
+            }
+            index.chunks.put(entry.chunk(), fields);
+            // Inline entries move to region files at the next save
+            index.dirtyRegions.add(regionOf(entry.chunk()));
+        }
+        return index;
+    }
+
+    private List<Entry> toEntries() {
+        List<Entry> entries = new ArrayList<>(chunks.size());
+        for (Long2ObjectMap.Entry<int[]> entry : chunks.long2ObjectEntrySet()) {
+            entries.add(new Entry(entry.getLongKey(), new IntArrayList(entry.getValue())));
+        }
+        return entries;
+    }
+}
@@ -5,6 +5,8 @@ import com.festeringportal.config.FesteringConfig;
 import com.mojang.serialization.Codec;
 import com.mojang.serialization.DataResult;
 import com.mojang.serialization.codecs.RecordCodecBuilder;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
 import net.minecraft.core.BlockPos;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.level.ServerLevel;
@@ -13,27 +15,50 @@ import net.minecraft.world.level.saveddata.SavedData;
 import net.minecraft.world.level.saveddata.SavedDataType;
 import net.minecraft.world.level.storage.SavedDataStorage;
 import net.minecraft.resources.Identifier;
+import java.nio.ByteBuffer;
 import java.util.*;
 
 /**
  * Persistent state storage for festering portals.
  * Saves portal locations and corruption frontier across world restarts.
+ *
+ * <p>The saved data itself holds only its format. Each portal lives in its own
+ * file through {@link PortalStorage} and carries a dirty flag, and the chunk
+ * corruption index is saved by region the same way, so a save writes just the
+ * portals and regions that changed. Saves that still hold portals or the index
+ * inline, in an older binary layout or the legacy one before it, are read as
+ * before; their contents start dirty and move to files at the next save.
  */
 public class FesteringPortalState extends SavedData {
 
     private static final String STATE_ID = FesteringPortal.MOD_ID + "_portals";
     public static final int MAX_FRONTIER_SIZE = 5000;
 
+    /** Save layout written by this version. */
+    private static final int FORMAT = 4;
+
+    /** Oldest layout read by the binary codec; 2 lists portals inline, 2 and 3 the chunk index. */
+    private static final int MIN_BINARY_FORMAT = 2;
+
     private Map<BlockPos, FesteringPortalData> festeringPortals;
+    private final ChunkCorruptionIndex chunkCorruption;
+
+    // Attached on first access from the server, which knows the world folder
+    private PortalStorage storage;
+
+    // Loaded from a save holding portals or the chunk index inline, which is rewritten without them
+    private boolean inlineData;
 
     public FesteringPortalState() {
         super();
         this.festeringPortals = new HashMap<>();
+        this.chunkCorruption = new ChunkCorruptionIndex();
     }
 
-    public FesteringPortalState(Map<BlockPos, FesteringPortalData> portals) {
+    public FesteringPortalState(Map<BlockPos, FesteringPortalData> portals, ChunkCorruptionIndex chunkCorruption) {
         super();
         this.festeringPortals = new HashMap<>(portals);
+        this.chunkCorruption = chunkCorruption;
     }
 
     public static class FesteringPortalData {
@@ -43,14 +68,68 @@ public class FesteringPortalState extends SavedData {
         public Set<BlockPos> corruptionFrontier;
         public long lastSpreadTick;
         public long lastBurstTick;
+        public final RecentConversions recentConversions;
+
+        // Chunk-affine sampling: the chunk sources are drawn from and cycles left on it.
+        // Not persisted; a restart just picks a new focus.
+        public long focusChunk;
+        public int focusCyclesLeft;
+
+        // Sections where a water body or tree turned out too big to convert whole.
+        // Later touches there go straight to single blocks. Not persisted.
+        public final LongSet oversizedWater = new LongOpenHashSet();
+        public final LongSet oversizedTrees = new LongOpenHashSet();
 
-        public static final Codec<FesteringPortalData> CODEC = RecordCodecBuilder.create(instance ->
+        // Changed since its file was last written. New and migrated portals start dirty.
+        boolean dirty = true;
+
+        /**
+         * A portal's saved fields, copied out so they can be encoded off the server
+         * thread while the portal keeps spreading. The frontier is packed positions.
+         */
+        public record Snapshot(BlockPos center, int cryingObsidianCount, long lastSpreadTick, long lastBurstTick,
+                               long[] frontier, RecentConversions recentConversions) {
+
+            public static final Codec<Snapshot> CODEC = RecordCodecBuilder.create(instance ->
+                instance.group(
+                    Codec.LONG.fieldOf("center").forGetter(s -> s.center.asLong()),
+                    Codec.INT.fieldOf("cryingCount").forGetter(Snapshot::cryingObsidianCount),
+                    Codec.LONG.fieldOf("lastTick").forGetter(Snapshot::lastSpreadTick),
+                    Codec.LONG.optionalFieldOf("lastBurstTick", 0L).forGetter(Snapshot::lastBurstTick),
+                    Codec.BYTE_BUFFER.fieldOf("frontier").forGetter(s -> FrontierEncoding.encode(s.center, s.frontier)),
+                    RecentConversions.CODEC.optionalFieldOf("recent").forGetter(s -> Optional.of(s.recentConversions))
+                ).apply(instance, Snapshot::fromBinary)
+            );
+
+            private static Snapshot fromBinary(long center, int cryingCount, long lastTick, long lastBurstTick, ByteBuffer frontierData,
+                                               Optional<RecentConversions> recent) {
+                BlockPos centerPos = BlockPos.of(center);
+                long[] frontier;
+                try {
+                    frontier = FrontierEncoding.decode(centerPos, frontierData);
+                } catch (IllegalArgumentException e) {
+                    // An empty frontier is rebuilt from the corrupted terrain on the next spread
+                    FesteringPortal.LOGGER.warn("Discarding unreadable frontier for portal at {}: {}", centerPos, e.getMessage());
+                    frontier = new long[0];
+                }
+                return new Snapshot(centerPos, cryingCount, lastTick, lastBurstTick, frontier,
+                    recent.orElseGet(() -> new RecentConversions(FesteringConfig.RECENT_CONVERSIONS_SIZE)));
+            }
+        }
+
+        /** The binary layout, read and written through {@link Snapshot}. */
+        public static final Codec<FesteringPortalData> CODEC =
+            Snapshot.CODEC.xmap(FesteringPortalData::fromSnapshot, FesteringPortalData::snapshot);
+
+        /** Pre-binary layout: frontier as a position list. Read only, for migration. */
+        private static final Codec<FesteringPortalData> LEGACY_CODEC = RecordCodecBuilder.create(instance ->
             instance.group(
                 BlockPos.CODEC.fieldOf("center").forGetter(d -> d.center),
                 Codec.INT.fieldOf("cryingCount").forGetter(d -> d.cryingObsidianCount),
                 Codec.LONG.fieldOf("lastTick").forGetter(d -> d.lastSpreadTick),
                 Codec.LONG.optionalFieldOf("lastBurstTick", 0L).forGetter(d -> d.lastBurstTick),
-                BlockPos.CODEC.listOf().fieldOf("frontier").forGetter(d -> new ArrayList<>(d.corruptionFrontier))
+                BlockPos.CODEC.listOf().fieldOf("frontier").forGetter(d -> new ArrayList<>(d.corruptionFrontier)),
+                RecentConversions.CODEC.optionalFieldOf("recent").forGetter(d -> Optional.of(d.recentConversions))
             ).apply(instance, FesteringPortalData::fromCodec)
         );
 
@@ -61,20 +140,56 @@ public class FesteringPortalState extends SavedData {
             this.corruptionFrontier = new HashSet<>();
             this.lastSpreadTick = 0;
             this.lastBurstTick = 0;
+            this.recentConversions = new RecentConversions(FesteringConfig.RECENT_CONVERSIONS_SIZE);
             this.corruptionFrontier.add(center);
         }
 
-        private FesteringPortalData(BlockPos center, int cryingObsidianCount, Set<BlockPos> frontier, long lastTick, long lastBurstTick) {
+        private FesteringPortalData(BlockPos center, int cryingObsidianCount, Set<BlockPos> frontier, long lastTick, long lastBurstTick,
+                                    RecentConversions recentConversions) {
             this.center = center;
             this.cryingObsidianCount = cryingObsidianCount;
             this.maxRadius = cryingObsidianCount * FesteringConfig.RADIUS_PER_CRYING_OBSIDIAN;
             this.corruptionFrontier = frontier;
             this.lastSpreadTick = lastTick;
             this.lastBurstTick = lastBurstTick;
+            this.recentConversions = recentConversions;
+            this.recentConversions.resize(FesteringConfig.RECENT_CONVERSIONS_SIZE);
+        }
+
+        private static FesteringPortalData fromCodec(BlockPos center, int cryingCount, long lastTick, long lastBurstTick, List<BlockPos> frontier,
+                                                     Optional<RecentConversions> recent) {
+            return new FesteringPortalData(center, cryingCount, new HashSet<>(frontier), lastTick, lastBurstTick,
+                recent.orElseGet(() -> new RecentConversions(FesteringConfig.RECENT_CONVERSIONS_SIZE)));
         }
 
-        private static FesteringPortalData fromCodec(BlockPos center, int cryingCount, long lastTick, long lastBurstTick, List<BlockPos> frontier) {
-            return new FesteringPortalData(center, cryingCount, new HashSet<>(frontier), lastTick, lastBurstTick);
+        private static FesteringPortalData fromSnapshot(Snapshot snapshot) {
+            Set<BlockPos> frontier = new HashSet<>(Math.max(16, snapshot.frontier().length * 4 / 3));
+            for (long pos : snapshot.frontier()) {
+                frontier.add(BlockPos.of(pos));
+            }
+            return new FesteringPortalData(snapshot.center(), snapshot.cryingObsidianCount(), frontier,
+                snapshot.lastSpreadTick(), snapshot.lastBurstTick(), snapshot.recentConversions());
+        }
+
+        /**
+         * Copy the saved fields out: the frontier as a packed array and the recent
+         * conversions ring. Cheap enough for the server thread; the encoding is left
+         * to whoever holds the snapshot.
+         */
+        public Snapshot snapshot() {
+            long[] frontier = new long[corruptionFrontier.size()];
+            int i = 0;
+            for (BlockPos pos : corruptionFrontier) {
+                frontier[i++] = pos.asLong();
+            }
+            return new Snapshot(center, cryingObsidianCount, lastSpreadTick, lastBurstTick, frontier, recentConversions.copy());
+        }
+
+        /**
+         * Have the next save write this portal's file.
+         */
+        public void markDirty() {
+            dirty = true;
         }
 
         public boolean isWithinMaxRadius(BlockPos pos) {
@@ -83,6 +198,7 @@ public class FesteringPortalState extends SavedData {
         }
     }
 
+    /** Legacy portal map key, "x,y,z". */
     private static final Codec<BlockPos> BLOCK_POS_STRING_CODEC = Codec.STRING.comapFlatMap(
         str -> {
             try {
@@ -102,13 +218,52 @@ public class FesteringPortalState extends SavedData {
         pos -> pos.getX() + "," + pos.getY() + "," + pos.getZ()
     );
 
-    public static final Codec<FesteringPortalState> CODEC = RecordCodecBuilder.create(instance ->
+    private static final Codec<Integer> FORMAT_CODEC = Codec.INT.validate(format -> format >= MIN_BINARY_FORMAT && format <= FORMAT
+        ? DataResult.success(format)
+        : DataResult.error(() -> "Unsupported festering portal save format " + format));
+
+    private static final Codec<FesteringPortalState> BINARY_CODEC = RecordCodecBuilder.create(instance ->
+        instance.group(
+            FORMAT_CODEC.fieldOf("format").forGetter(state -> FORMAT),
+            // Read from format 2 saves only; portals are written to their own files
+            FesteringPortalData.CODEC.listOf().optionalFieldOf("portals", List.of())
+                .forGetter(state -> List.of()),
+            // Read from format 2 and 3 saves only; the index is written by region
+            ChunkCorruptionIndex.CODEC.optionalFieldOf("chunkCorruption")
+                .forGetter(state -> Optional.<ChunkCorruptionIndex>empty())
+        ).apply(instance, (format, portals, chunkCorruption) -> {
+            Map<BlockPos, FesteringPortalData> byCenter = new HashMap<>();
+            for (FesteringPortalData portal : portals) {
+                byCenter.put(portal.center, portal);
+            }
+            FesteringPortalState state = new FesteringPortalState(byCenter, chunkCorruption.orElseGet(ChunkCorruptionIndex::new));
+            if (!portals.isEmpty() || chunkCorruption.isPresent()) {
+                // Rewrite without the inline data once it has its own files
+                state.inlineData = true;
+                state.setDirty();
+            }
+            return state;
+        })
+    );
+
+    private static final Codec<FesteringPortalState> LEGACY_CODEC = RecordCodecBuilder.create(instance ->
         instance.group(
-            Codec.unboundedMap(BLOCK_POS_STRING_CODEC, FesteringPortalData.CODEC)
-                .fieldOf("portals").forGetter(state -> state.festeringPortals)
-        ).apply(instance, FesteringPortalState::new)
+            Codec.unboundedMap(BLOCK_POS_STRING_CODEC, FesteringPortalData.LEGACY_CODEC)
+                .fieldOf("portals").forGetter(state -> state.festeringPortals),
+            ChunkCorruptionIndex.CODEC.optionalFieldOf("chunkCorruption")
+                .forGetter(state -> Optional.of(state.chunkCorruption))
+        ).apply(instance, (portals, chunkCorruption) -> {
+            FesteringPortalState state = new FesteringPortalState(portals, chunkCorruption.orElseGet(ChunkCorruptionIndex::new));
+            // Rewrite in the current layout at the next save
+            state.inlineData = true;
+            state.setDirty();
+            return state;
+        })
     );
 
+    /** Writes the current layout; reads it, formats 2 and 3, or the legacy one from older saves. */
+    public static final Codec<FesteringPortalState> CODEC = Codec.withAlternative(BINARY_CODEC, LEGACY_CODEC);
+
     private static final SavedDataType<FesteringPortalState> TYPE = new SavedDataType<>(
         Identifier.fromNamespaceAndPath(FesteringPortal.MOD_ID, "portals"),
         FesteringPortalState::new,
@@ -118,12 +273,11 @@ public class FesteringPortalState extends SavedData {
 
     public void registerPortal(BlockPos center, int cryingObsidianCount) {
         festeringPortals.put(center, new FesteringPortalData(center, cryingObsidianCount));
-        setDirty();
     }
 
     public void removePortal(BlockPos center) {
         if (festeringPortals.remove(center) != null) {
-            setDirty();
+            storage.markRemoved(center);
         }
     }
 
@@ -139,6 +293,13 @@ public class FesteringPortalState extends SavedData {
         return festeringPortals.containsKey(center);
     }
 
+    /**
+     * Per-chunk conversion counts. Changes mark their region for the next save.
+     */
+    public ChunkCorruptionIndex getChunkCorruption() {
+        return chunkCorruption;
+    }
+
     /**
      * Update the frontier for a portal. Enforces MAX_FRONTIER_SIZE cap.
      */
@@ -159,7 +320,7 @@ public class FesteringPortalState extends SavedData {
                 }
             }
             data.lastSpreadTick = tick;
-            setDirty();
+            data.markDirty();
         }
     }
 
@@ -169,7 +330,33 @@ public class FesteringPortalState extends SavedData {
             throw new IllegalStateException("Overworld not found!");
         }
         SavedDataStorage manager = world.getDataStorage();
-        return manager.computeIfAbsent(TYPE);
+        FesteringPortalState state = manager.computeIfAbsent(TYPE);
+        if (state.storage == null) {
+            state.storage = PortalStorage.forServer(server);
+            state.storage.loadInto(state.festeringPortals, state.chunkCorruption);
+        }
+        return state;
+    }
+
+    /**
+     * Snapshot the portals and chunk index regions changed since the last save and
+     * hand them to the background writer. Called before every world save.
+     *
+     * <p>Waits for the writes when the save flushes, as on shutdown, and on the
+     * first save after loading inline data: the saved data written next drops it,
+     * so its files must be on disk first.
+     */
+    public static void saveFiles(MinecraftServer server, boolean flush) {
+        if (server.getLevel(Level.OVERWORLD) == null) return;
+        FesteringPortalState state = getServerState(server);
+        int queued = state.storage.save(state.festeringPortals, state.chunkCorruption);
+        if (queued > 0) {
+            FesteringPortal.LOGGER.debug("Queued {} festering portal file(s) for saving", queued);
+        }
+        if (flush || state.inlineData) {
+            PortalStorage.awaitWrites();
+            state.inlineData = false;
+        }
     }
 
     public static void initialize(MinecraftServer server) {
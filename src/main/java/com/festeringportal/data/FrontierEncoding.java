@@ -0,0 +1,116 @@
+package com.festeringportal.data;
+
+import io.netty.buffer.Unpooled;
+import it.unimi.dsi.fastutil.longs.LongArrays;
+import java.nio.ByteBuffer;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.FriendlyByteBuf;
+
+/**
+ * Binary form of a portal's frontier, saved as one byte array.
+ *
+ * <p>Each position becomes its offset from the portal centre, packed into one
+ * number with x highest and y lowest, using just enough bits per axis for the
+ * farthest entry. The numbers are sorted and written as varint gaps. Neighbouring
+ * frontier blocks sort next to each other, so most entries take two or three
+ * bytes, where a list of positions takes a tagged int array each.
+ *
+ * <p>Both directions work on positions packed with {@link BlockPos#asLong()}, the
+ * form portal snapshots hold them in.
+ *
+ * <pre>
+ * byte    version (1)
+ * byte    bits per axis
+ * varint  entry count
+ * varlong gap from the previous packed offset, per entry
+ * </pre>
+ */
+public final class FrontierEncoding {
+
+    private static final int VERSION = 1;
+
+    /** Three axes in one positive long. */
+    private static final int MAX_BITS = 21;
+
+    private FrontierEncoding() {}
+
+    public static ByteBuffer encode(BlockPos center, long[] frontier) {
+        int maxOffset = 0;
+        for (long pos : frontier) {
+            maxOffset = Math.max(maxOffset, Math.abs(BlockPos.getX(pos) - center.getX()));
+            maxOffset = Math.max(maxOffset, Math.abs(BlockPos.getY(pos) - center.getY()));
+            maxOffset = Math.max(maxOffset, Math.abs(BlockPos.getZ(pos) - center.getZ()));
+        }
+        // One sign bit on top of the magnitude
+        int bits = 33 - Integer.numberOfLeadingZeros(maxOffset);
+        if (bits > MAX_BITS) {
+            throw new IllegalArgumentException("Frontier entry too far from portal " + center + ": " + maxOffset);
+        }
+
+        long[] packed = new long[frontier.length];
+        for (int i = 0; i < frontier.length; i++) {
+            long pos = frontier[i];
+            packed[i] = pack(BlockPos.getX(pos) - center.getX(), BlockPos.getY(pos) - center.getY(), BlockPos.getZ(pos) - center.getZ(), bits);
+        }
+        LongArrays.radixSort(packed);
+
+        FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer(8 + packed.length * 3));
+        buf.writeByte(VERSION);
+        buf.writeByte(bits);
+        buf.writeVarInt(packed.length);
+        long previous = 0;
+        for (long value : packed) {
+            buf.writeVarLong(value - previous);
+            previous = value;
+        }
+
+        byte[] bytes = new byte[buf.readableBytes()];
+        buf.readBytes(bytes);
+        return ByteBuffer.wrap(bytes);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the data is from an unknown version or cut short
+     */
+    public static long[] decode(BlockPos center, ByteBuffer data) {
+        FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.wrappedBuffer(data.duplicate()));
+        try {
+            int version = buf.readUnsignedByte();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unknown frontier encoding version " + version);
+            }
+            int bits = buf.readUnsignedByte();
+            if (bits < 1 || bits > MAX_BITS) {
+                throw new IllegalArgumentException("Invalid frontier axis width " + bits);
+            }
+
+            int count = buf.readVarInt();
+            if (count < 0 || count > buf.readableBytes()) {
+                throw new IllegalArgumentException("Invalid frontier entry count " + count);
+            }
+            long[] frontier = new long[count];
+            long value = 0;
+            for (int i = 0; i < count; i++) {
+                value += buf.readVarLong();
+                frontier[i] = unpack(center, value, bits);
+            }
+            return frontier;
+        } catch (IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Truncated frontier data", e);
+        }
+    }
+
+    private static long pack(int dx, int dy, int dz, int bits) {
+        long bias = 1L << (bits - 1);
+        return (dx + bias) << (2 * bits) | (dz + bias) << bits | (dy + bias);
+    }
+
+    private static long unpack(BlockPos center, long value, int bits) {
+        long mask = (1L << bits) - 1;
+        long bias = 1L << (bits - 1);
+        int dx = (int) ((value >>> (2 * bits) & mask) - bias);
+        int dz = (int) ((value >>> bits & mask) - bias);
+        int dy = (int) ((value & mask) - bias);
+        return BlockPos.asLong(center.getX() + dx, center.getY() + dy, center.getZ() + dz);
+    }
+}
@@ -0,0 +1,219 @@
+package com.festeringportal.data;
+
+import com.festeringportal.FesteringPortal;
+import com.festeringportal.data.FesteringPortalState.FesteringPortalData;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.NbtAccounter;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.nbt.NbtOps;
+import net.minecraft.nbt.Tag;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.storage.LevelResource;
+
+/**
+ * One save file per portal, under {@code data/festeringportal/portals/} in the
+ * world folder, each holding {@link FesteringPortalData#CODEC} as compressed NBT.
+ * The chunk corruption index is saved beside them, one file per region under
+ * {@code data/festeringportal/chunks/}, each holding a
+ * {@link ChunkCorruptionIndex.Region}.
+ *
+ * <p>A save writes only the portals marked dirty since the last one and deletes
+ * the files of portals removed since, so an autosave with one spreading portal
+ * re-encodes one frontier however many portals the world has. Likewise only the
+ * index regions changed since the last save are written. Each file is
+ * written beside its target and moved over it, so a crash mid-save leaves the
+ * previous version rather than half a file.
+ *
+ * <p>The server thread only takes {@link FesteringPortalData.Snapshot snapshots}:
+ * array copies of each dirty portal. Encoding, compression and the write run on
+ * virtual threads, one per file. Each save's writes start once the previous
+ * save's have finished, so an older snapshot never lands over a newer one.
+ * {@link #awaitWrites()} blocks until everything queued is on disk.
+ */
+public final class PortalStorage {
+
+    private static final String EXTENSION = ".dat";
+    private static final String TEMP_EXTENSION = ".tmp";
+
+    private static final ExecutorService WRITERS = Executors.newVirtualThreadPerTaskExecutor();
+
+    /** The last queued save; every save chains onto it. */
+    private static CompletableFuture<Void> pending = CompletableFuture.completedFuture(null);
+
+    private final Path directory;
+    private final Path regionDirectory;
+    private final Set<BlockPos> removed = new HashSet<>();
+
+    // Portals and regions whose background write failed, marked dirty again at the next save
+    private final Set<BlockPos> failed = ConcurrentHashMap.newKeySet();
+    private final Set<Long> failedRegions = ConcurrentHashMap.newKeySet();
+
+    PortalStorage(Path directory, Path regionDirectory) {
+        this.directory = directory;
+        this.regionDirectory = regionDirectory;
+    }
+
+    static PortalStorage forServer(MinecraftServer server) {
+        Path root = server.getWorldPath(LevelResource.ROOT).resolve("data").resolve(FesteringPortal.MOD_ID);
+        return new PortalStorage(root.resolve("portals"), root.resolve("chunks"));
+    }
+
+    /**
+     * Read every portal file into the map and every region file into the index,
+     * replacing entries already there. Loaded portals and regions start clean.
+     * Unreadable files are logged and left alone.
+     */
+    void loadInto(Map<BlockPos, FesteringPortalData> portals, ChunkCorruptionIndex index) {
+        forEachFile(directory, "portal", tag -> {
+            FesteringPortalData portal = FesteringPortalData.CODEC.parse(NbtOps.INSTANCE, tag).getOrThrow();
+            portal.dirty = false;
+            portals.put(portal.center, portal);
+        });
+        forEachFile(regionDirectory, "chunk index", tag ->
+            index.load(ChunkCorruptionIndex.Region.CODEC.parse(NbtOps.INSTANCE, tag).getOrThrow()));
+    }
+
+    private static void forEachFile(Path directory, String kind, Consumer<CompoundTag> reader) {
+        if (!Files.isDirectory(directory)) return;
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+            for (Path file : files) {
+                try {
+                    reader.accept(NbtIo.readCompressed(file, NbtAccounter.unlimitedHeap()));
+                } catch (IOException | IllegalArgumentException | IllegalStateException e) {
+                    FesteringPortal.LOGGER.error("Failed to read festering {} file {}", kind, file, e);
+                }
+            }
+        } catch (IOException e) {
+            FesteringPortal.LOGGER.error("Failed to list festering {} files in {}", kind, directory, e);
+        }
+    }
+
+    /**
+     * Delete the portal's file at the next save.
+     */
+    void markRemoved(BlockPos center) {
+        removed.add(center);
+    }
+
+    /**
+     * Snapshot the dirty portals and index regions and queue their writes, along
+     * with deleting the files of removed portals. A portal or region whose write
+     * fails is marked dirty again at the next save and tried once more.
+     *
+     * @return the number of files queued for writing
+     */
+    int save(Map<BlockPos, FesteringPortalData> portals, ChunkCorruptionIndex index) {
+        for (BlockPos center : failed) {
+            failed.remove(center);
+            FesteringPortalData portal = portals.get(center);
+            if (portal != null) portal.markDirty();
+        }
+        for (Long region : failedRegions) {
+            failedRegions.remove(region);
+            index.markRegionDirty(region);
+        }
+
+        // A centre removed and registered again is simply rewritten
+        List<BlockPos> deletions = new ArrayList<>();
+        for (BlockPos center : removed) {
+            if (!portals.containsKey(center)) deletions.add(center);
+        }
+        removed.clear();
+
+        List<FesteringPortalData.Snapshot> snapshots = new ArrayList<>();
+        for (FesteringPortalData portal : portals.values()) {
+            if (!portal.dirty) continue;
+            snapshots.add(portal.snapshot());
+            portal.dirty = false;
+        }
+        List<ChunkCorruptionIndex.Region> regions = index.takeDirtyRegions();
+        if (deletions.isEmpty() && snapshots.isEmpty() && regions.isEmpty()) return 0;
+
+        pending = pending.thenCompose(ignored -> {
+            List<CompletableFuture<Void>> writes = new ArrayList<>();
+            for (BlockPos center : deletions) {
+                writes.add(CompletableFuture.runAsync(() -> delete(center), WRITERS));
+            }
+            for (FesteringPortalData.Snapshot snapshot : snapshots) {
+                writes.add(CompletableFuture.runAsync(() -> {
+                    if (!write(fileFor(snapshot.center()), "portal", () ->
+                            FesteringPortalData.Snapshot.CODEC.encodeStart(NbtOps.INSTANCE, snapshot).getOrThrow())) {
+                        failed.add(snapshot.center());
+                    }
+                }, WRITERS));
+            }
+            for (ChunkCorruptionIndex.Region region : regions) {
+                writes.add(CompletableFuture.runAsync(() -> {
+                    if (!write(regionFileFor(region.region()), "chunk index", () ->
+                            ChunkCorruptionIndex.Region.CODEC.encodeStart(NbtOps.INSTANCE, region).getOrThrow())) {
+                        failedRegions.add(region.region());
+                    }
+                }, WRITERS));
+            }
+            return CompletableFuture.allOf(writes.toArray(CompletableFuture[]::new));
+        });
+        return snapshots.size() + regions.size();
+    }
+
+    /**
+     * Block until every queued write and deletion has finished.
+     */
+    public static void awaitWrites() {
+        pending.join();
+    }
+
+    private Path fileFor(BlockPos center) {
+        return directory.resolve(center.getX() + "_" + center.getY() + "_" + center.getZ() + EXTENSION);
+    }
+
+    private Path regionFileFor(long region) {
+        return regionDirectory.resolve("r." + ChunkPos.getX(region) + "." + ChunkPos.getZ(region) + EXTENSION);
+    }
+
+    private void delete(BlockPos center) {
+        try {
+            Files.deleteIfExists(fileFor(center));
+        } catch (IOException e) {
+            FesteringPortal.LOGGER.error("Failed to delete festering portal file for {}", center, e);
+        }
+    }
+
+    /**
+     * Encode, compress and write one file. Runs on a writer thread; never throws,
+     * so one bad file cannot break the chain of saves behind it.
+     *
+     * @return whether the file was written
+     */
+    private static boolean write(Path file, String kind, Supplier<Tag> encoder) {
+        Path temp = file.resolveSibling(file.getFileName() + TEMP_EXTENSION);
+        try {
+            Tag tag = encoder.get();
+            Files.createDirectories(file.getParent());
+            NbtIo.writeCompressed((CompoundTag) tag, temp);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            FesteringPortal.LOGGER.error("Failed to save festering {} file {}", kind, file, e);
+            return false;
+        }
+    }
+}
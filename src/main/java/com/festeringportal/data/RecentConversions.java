@@ -0,0 +1,92 @@
+package com.festeringportal.data;
+
+import com.mojang.serialization.Codec;
+import java.util.Arrays;
+import java.util.stream.LongStream;
+import net.minecraft.core.BlockPos;
+import net.minecraft.util.RandomSource;
+
+/**
+ * A portal's most recent conversions, as packed positions in a fixed-size ring.
+ * Once full, each new conversion overwrites the oldest.
+ */
+public class RecentConversions {
+
+    /** Stored oldest first, so a reload keeps the age order. */
+    public static final Codec<RecentConversions> CODEC = Codec.LONG_STREAM.xmap(
+        stream -> RecentConversions.fromOldestFirst(stream.toArray()),
+        recent -> LongStream.of(recent.toOldestFirst())
+    );
+
+    private long[] ring;
+    private int head; // next slot to write
+    private int size;
+
+    public RecentConversions(int capacity) {
+        this.ring = new long[Math.max(1, capacity)];
+    }
+
+    public void push(BlockPos pos) {
+        ring[head] = pos.asLong();
+        head = (head + 1) % ring.length;
+        if (size < ring.length) size++;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * A packed position drawn with a bias toward newer entries: the age in the ring
+     * is size * u^2 for a uniform u, so the newest quarter gets half the draws.
+     * Only call when not empty.
+     */
+    public long sample(RandomSource random) {
+        float u = random.nextFloat();
+        int age = Math.min((int) (size * u * u), size - 1);
+        return ring[Math.floorMod(head - 1 - age, ring.length)];
+    }
+
+    /**
+     * An independent copy with the same capacity and entries.
+     */
+    public RecentConversions copy() {
+        RecentConversions copy = new RecentConversions(ring.length);
+        System.arraycopy(ring, 0, copy.ring, 0, ring.length);
+        copy.head = head;
+        copy.size = size;
+        return copy;
+    }
+
+    /**
+     * Resize to a new capacity, keeping the newest entries.
+     */
+    public void resize(int capacity) {
+        capacity = Math.max(1, capacity);
+        if (capacity == ring.length) return;
+
+        long[] entries = toOldestFirst();
+        int keep = Math.min(entries.length, capacity);
+        ring = new long[capacity];
+        System.arraycopy(entries, entries.length - keep, ring, 0, keep);
+        size = keep;
+        head = keep % capacity;
+    }
+
+    private long[] toOldestFirst() {
+        long[] entries = new long[size];
+        int start = Math.floorMod(head - size, ring.length);
+        for (int i = 0; i < size; i++) {
+            entries[i] = ring[(start + i) % ring.length];
+        }
+        return entries;
+    }
+
+    private static RecentConversions fromOldestFirst(long[] entries) {
+        RecentConversions recent = new RecentConversions(entries.length);
+        recent.ring = Arrays.copyOf(entries, Math.max(1, entries.length));
+        recent.size = entries.length;
+        recent.head = entries.length % recent.ring.length;
+        return recent;
+    }
+}
@@ -0,0 +1,30 @@
+package com.festeringportal.mixin;
+
+import com.festeringportal.corruption.CandidateIndex;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.state.BlockState;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+/**
+ * Mixin to keep the corruption candidate index current when any block changes,
+ * whether the spread changed it or a player did.
+ */
+@Mixin(Level.class)
+public abstract class LevelBlockChangeMixin {
+
+    @Inject(
+        method = "setBlock(Lnet/minecraft/core/BlockPos;Lnet/minecraft/world/level/block/state/BlockState;II)Z",
+        at = @At("RETURN")
+    )
+    private void onBlockChanged(BlockPos pos, BlockState state, int flags, int recursionLeft, CallbackInfoReturnable<Boolean> cir) {
+        if (!cir.getReturnValueZ()) return;
+        if (!((Object) this instanceof ServerLevel serverWorld)) return;
+
+        CandidateIndex.onBlockChanged(serverWorld, pos);
+    }
+}
@@ -0,0 +1,57 @@
+package com.festeringportal.mixin;
+
+import com.festeringportal.corruption.LightBatch;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMaps;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.lighting.LevelLightEngine;
+import net.minecraft.world.level.lighting.LightEngine;
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+/**
+ * Mixin to run the light checks a corruption batch staged for a section along with
+ * that section's single queued check. Staging happens on the server thread and the
+ * check runs on the light thread, so the staging map is synchronized.
+ */
+@Mixin(LevelLightEngine.class)
+public abstract class LevelLightEngineMixin implements LightBatch.StagingEngine {
+
+    @Shadow @Final
+    private LightEngine<?, ?> blockEngine;
+
+    @Shadow @Final
+    private LightEngine<?, ?> skyEngine;
+
+    @Unique
+    private final Long2ObjectMap<long[]> festeringportal$staged = Long2ObjectMaps.synchronize(new Long2ObjectOpenHashMap<>());
+
+    @Override
+    public void festeringportal$stageChecks(long lead, long[] extras) {
+        festeringportal$staged.merge(lead, extras, (existing, added) -> {
+            long[] merged = new long[existing.length + added.length];
+            System.arraycopy(existing, 0, merged, 0, existing.length);
+            System.arraycopy(added, 0, merged, existing.length, added.length);
+            return merged;
+        });
+    }
+
+    @Inject(method = "checkBlock", at = @At("HEAD"))
+    private void onCheckBlock(BlockPos pos, CallbackInfo ci) {
+        // Calling our own checkBlock here would re-queue through the threaded engine
+        long[] extras = festeringportal$staged.remove(pos.asLong());
+        if (extras == null) return;
+
+        for (long extra : extras) {
+            BlockPos extraPos = BlockPos.of(extra);
+            if (blockEngine != null) blockEngine.checkBlock(extraPos);
+            if (skyEngine != null) skyEngine.checkBlock(extraPos);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.festeringportal.mixin;
+
+import com.festeringportal.corruption.MaturationTicker;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.chunk.LevelChunk;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+/**
+ * Mixin to give corrupted chunks their maturation ticks alongside vanilla's random ticks.
+ */
+@Mixin(ServerLevel.class)
+public abstract class ServerLevelTickChunkMixin {
+
+    @Inject(method = "tickChunk", at = @At("TAIL"))
+    private void onTickChunk(LevelChunk chunk, int randomTickSpeed, CallbackInfo ci) {
+        MaturationTicker.tickChunk((ServerLevel) (Object) this, chunk, randomTickSpeed);
+    }
+}
@@ -0,0 +1,24 @@
+package com.festeringportal.mixin;
+
+import com.festeringportal.corruption.NetherSpawner;
+import net.minecraft.world.entity.MobCategory;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.NaturalSpawner;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+
+/**
+ * Mixin to let nether spawns ask the last natural spawn pass for the per-player
+ * mob caps around a chunk, as vanilla's own spawns do.
+ */
+@Mixin(NaturalSpawner.SpawnState.class)
+public abstract class SpawnStateMixin implements NetherSpawner.LocalCaps {
+
+    @Shadow
+    abstract boolean canSpawnForCategoryLocal(MobCategory category, ChunkPos chunkPos);
+
+    @Override
+    public boolean festeringportal$canSpawnLocal(MobCategory category, ChunkPos chunkPos) {
+        return canSpawnForCategoryLocal(category, chunkPos);
+    }
+}
@@ -0,0 +1,24 @@
+package com.festeringportal.mixin;
+
+import com.festeringportal.corruption.LightBatch;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ThreadedLevelLightEngine;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+/**
+ * Mixin to hold back per-block light tasks while a corruption batch commits,
+ * so they can be submitted once per section instead.
+ */
+@Mixin(ThreadedLevelLightEngine.class)
+public abstract class ThreadedLightEngineMixin {
+
+    @Inject(method = "checkBlock", at = @At("HEAD"), cancellable = true)
+    private void onCheckBlock(BlockPos pos, CallbackInfo ci) {
+        if (LightBatch.capture((ThreadedLevelLightEngine) (Object) this, pos)) {
+            ci.cancel();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.festeringportal.network;
+
+import com.festeringportal.FesteringPortal;
+import com.festeringportal.corruption.ParticleBatch;
+import java.util.Arrays;
+import net.fabricmc.fabric.api.networking.v1.PayloadTypeRegistry;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.Identifier;
+import net.minecraft.server.level.ServerPlayer;
+
+/**
+ * One chunk's corruption effects for clients running the companion, which draw
+ * them locally instead of receiving vanilla particle packets.
+ *
+ * <p>Positions travel as indexes within the chunk, relative to the lowest site:
+ * {@code (y - baseY) << 8 | z << 4 | x}. Each effect's indexes are sorted and
+ * sent as varint gaps, so a cluster of conversions costs a byte or two per block
+ * against a full particle packet per block and effect.
+ *
+ * @param sites packed block positions per effect, indexed by effect ordinal; empty where absent
+ */
+public record CorruptionEffectsPayload(int chunkX, int chunkZ, long[][] sites) implements CustomPacketPayload {
+
+    public static final Type<CorruptionEffectsPayload> TYPE =
+        new Type<>(Identifier.fromNamespaceAndPath(FesteringPortal.MOD_ID, "effects"));
+
+    public static final StreamCodec<FriendlyByteBuf, CorruptionEffectsPayload> CODEC =
+        CustomPacketPayload.codec(CorruptionEffectsPayload::write, CorruptionEffectsPayload::read);
+
+    private static final long[] NONE = new long[0];
+
+    /**
+     * Register the payload type. Called from the common initializer, so both sides know it.
+     */
+    public static void register() {
+        PayloadTypeRegistry.playS2C().register(TYPE, CODEC);
+    }
+
+    /**
+     * Whether this player's client has the companion and listens for the payload.
+     */
+    public static boolean canSend(ServerPlayer player) {
+        return ServerPlayNetworking.canSend(player, TYPE);
+    }
+
+    public static void send(ServerPlayer player, CorruptionEffectsPayload payload) {
+        ServerPlayNetworking.send(player, payload);
+    }
+
+    @Override
+    public Type<CorruptionEffectsPayload> type() {
+        return TYPE;
+    }
+
+    private void write(FriendlyByteBuf buf) {
+        buf.writeVarInt(chunkX);
+        buf.writeVarInt(chunkZ);
+
+        int baseY = Integer.MAX_VALUE;
+        int mask = 0;
+        for (int effect = 0; effect < sites.length; effect++) {
+            if (sites[effect].length == 0) continue;
+            mask |= 1 << effect;
+            for (long packed : sites[effect]) {
+                baseY = Math.min(baseY, BlockPos.getY(packed));
+            }
+        }
+        buf.writeByte(mask);
+        if (mask == 0) return;
+        buf.writeVarInt(baseY);
+
+        for (long[] effectSites : sites) {
+            if (effectSites.length == 0) continue;
+
+            int[] indexes = new int[effectSites.length];
+            for (int i = 0; i < effectSites.length; i++) {
+                long packed = effectSites[i];
+                indexes[i] = (BlockPos.getY(packed) - baseY) << 8
+                    | SectionPos.sectionRelative(BlockPos.getZ(packed)) << 4
+                    | SectionPos.sectionRelative(BlockPos.getX(packed));
+            }
+            Arrays.sort(indexes);
+
+            buf.writeVarInt(indexes.length);
+            int previous = 0;
+            for (int index : indexes) {
+                buf.writeVarInt(index - previous);
+                previous = index;
+            }
+        }
+    }
+
+    private static CorruptionEffectsPayload read(FriendlyByteBuf buf) {
+        int chunkX = buf.readVarInt();
+        int chunkZ = buf.readVarInt();
+        int mask = buf.readByte();
+
+        int effects = ParticleBatch.Effect.values().length;
+        long[][] sites = new long[effects][];
+        Arrays.fill(sites, NONE);
+        if (mask == 0) return new CorruptionEffectsPayload(chunkX, chunkZ, sites);
+
+        int baseY = buf.readVarInt();
+        int minX = SectionPos.sectionToBlockCoord(chunkX);
+        int minZ = SectionPos.sectionToBlockCoord(chunkZ);
+        for (int effect = 0; effect < effects; effect++) {
+            if ((mask & (1 << effect)) == 0) continue;
+
+            long[] effectSites = new long[buf.readVarInt()];
+            int index = 0;
+            for (int i = 0; i < effectSites.length; i++) {
+                index += buf.readVarInt();
+                effectSites[i] = BlockPos.asLong(minX + (index & 15), baseY + (index >>> 8), minZ + ((index >>> 4) & 15));
+            }
+            sites[effect] = effectSites;
+        }
+        return new CorruptionEffectsPayload(chunkX, chunkZ, sites);
+    }
+}